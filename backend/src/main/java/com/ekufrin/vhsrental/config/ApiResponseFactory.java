@@ -1,5 +1,6 @@
 package com.ekufrin.vhsrental.config;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -15,4 +16,19 @@ public class ApiResponseFactory {
                         .data(data)
                         .build());
     }
+
+    /**
+     * Same envelope, tagged with {@code etag} and marked for revalidation, for reads guarded by {@code If-None-Match}.
+     */
+    public static <T> ResponseEntity<ApiResponse<T>> success(String message, T data, HttpStatus status, String etag) {
+        return ResponseEntity.status(status)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.<T>builder()
+                        .status("success")
+                        .message(message)
+                        .timestamp(Instant.now())
+                        .data(data)
+                        .build());
+    }
 }
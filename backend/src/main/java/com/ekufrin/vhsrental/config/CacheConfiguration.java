@@ -0,0 +1,41 @@
+package com.ekufrin.vhsrental.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Bounded, TTL-expiring read caches for the catalog. Stats are recorded so that actuator publishes
+ * {@code cache.gets}, {@code cache.evictions} and {@code cache.size} per cache.
+ */
+@Configuration
+// Outside the retry and transaction advisors: a hit never opens a transaction, and an eviction runs after commit.
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 2)
+public class CacheConfiguration {
+    public static final String VHS_BY_ID = "vhs";
+    public static final String VHS_PAGES = "vhs-pages";
+    public static final String GENRE_BY_ID = "genres";
+
+    @Bean
+    public CacheManager cacheManager(CatalogCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(VHS_BY_ID, build(properties.vhs()));
+        cacheManager.registerCustomCache(VHS_PAGES, build(properties.vhsPages()));
+        cacheManager.registerCustomCache(GENRE_BY_ID, build(properties.genres()));
+        return cacheManager;
+    }
+
+    private static Cache<Object, Object> build(CatalogCacheProperties.CacheSpec spec) {
+        return Caffeine.newBuilder()
+                .maximumSize(spec.maximumSize())
+                .expireAfterWrite(spec.ttl())
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.ekufrin.vhsrental.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Broadcasts catalog changes to the other nodes over Postgres LISTEN/NOTIFY. When the listening connection is lost
+ * the node drops every cache, because notifications sent in the meantime are gone.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationBus {
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final String EVERYTHING = "*";
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheInvalidationProperties properties;
+    private final CatalogVersions catalogVersions;
+    private volatile Thread listener;
+
+    public void publish(String entity, Object id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    catalogVersions.bump(entity, id);
+                }
+            });
+        } else {
+            catalogVersions.bump(entity, id);
+        }
+        if (!properties.enabled()) {
+            return;
+        }
+        String payload = nodeId + "|" + entity + "|" + id;
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, properties.channel(), payload);
+    }
+
+    /**
+     * For bulk writes that touch too many rows to announce one by one: every node, this one included, drops its
+     * derived catalog caches. Not transaction-aware, so call it after the writes have committed.
+     */
+    public void publishEverything() {
+        eventPublisher.publishEvent(CatalogChangeEvent.everything());
+        if (!properties.enabled()) {
+            return;
+        }
+        String payload = nodeId + "|" + EVERYTHING + "|" + EVERYTHING;
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, properties.channel(), payload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.enabled()) {
+            listener = Thread.ofVirtual().name("cache-invalidation-listener").start(this::listen);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread current = listener;
+        listener = null;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (listener != null) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + properties.channel() + "\"");
+                }
+                if (reconnecting) {
+                    eventPublisher.publishEvent(CatalogChangeEvent.everything());
+                }
+                log.info("Listening for cache invalidations channel={} nodeId={}", properties.channel(), nodeId);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (listener != null) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (listener == null) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected, retrying in {}", properties.reconnectBackoff(), e);
+                reconnecting = true;
+                try {
+                    Thread.sleep(properties.reconnectBackoff());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed cache invalidation payload={}", payload);
+            return;
+        }
+        if (parts[0].equals(nodeId)) {
+            return;
+        }
+        eventPublisher.publishEvent(EVERYTHING.equals(parts[1])
+                ? CatalogChangeEvent.everything()
+                : new CatalogChangeEvent(parts[1], parts[2]));
+    }
+}
@@ -0,0 +1,9 @@
+package com.ekufrin.vhsrental.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "catalog.invalidation")
+public record CacheInvalidationProperties(boolean enabled, String channel, Duration reconnectBackoff) {
+}
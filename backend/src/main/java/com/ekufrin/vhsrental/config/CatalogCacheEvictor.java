@@ -0,0 +1,70 @@
+package com.ekufrin.vhsrental.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Applies catalog changes made on other nodes to this node's caches, mirroring what the local write evicted.
+ * Local writes that cannot declare their evictions with {@code @CacheEvict} use {@link #evictAfterCommit}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCacheEvictor {
+    private final CacheManager cacheManager;
+
+    // Runs before CatalogVersions moves the ETags on, see there.
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.isEverything()) {
+            cacheManager.getCacheNames().forEach(this::clear);
+            return;
+        }
+        if (event.concerns(CatalogChangeEvent.VHS)) {
+            evict(CacheConfiguration.VHS_BY_ID, event.id());
+            clear(CacheConfiguration.VHS_PAGES);
+        }
+        if (event.concerns(CatalogChangeEvent.GENRE)) {
+            evict(CacheConfiguration.GENRE_BY_ID, event.id());
+        }
+    }
+
+    /**
+     * Applies {@code event} to this node's caches once the current transaction commits, or at once outside one.
+     */
+    public void evictAfterCommit(CatalogChangeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    onCatalogChange(event);
+                }
+            });
+        } else {
+            onCatalogChange(event);
+        }
+    }
+
+    private void evict(String cacheName, String id) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(UUID.fromString(id));
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
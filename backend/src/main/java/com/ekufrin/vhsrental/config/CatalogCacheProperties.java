@@ -0,0 +1,12 @@
+package com.ekufrin.vhsrental.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "catalog.cache")
+public record CatalogCacheProperties(CacheSpec vhs, CacheSpec vhsPages, CacheSpec genres) {
+
+    public record CacheSpec(long maximumSize, Duration ttl) {
+    }
+}
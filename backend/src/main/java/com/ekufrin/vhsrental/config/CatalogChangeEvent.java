@@ -0,0 +1,23 @@
+package com.ekufrin.vhsrental.config;
+
+/**
+ * A catalog entity changed on another node. A {@code null} entity means notifications may have been missed
+ * and every derived cache should be dropped.
+ */
+public record CatalogChangeEvent(String entity, String id) {
+    public static final String VHS = "vhs";
+    public static final String GENRE = "genre";
+    public static final String REVIEW = "review";
+
+    public static CatalogChangeEvent everything() {
+        return new CatalogChangeEvent(null, null);
+    }
+
+    public boolean isEverything() {
+        return entity == null;
+    }
+
+    public boolean concerns(String candidate) {
+        return entity == null || entity.equals(candidate);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ekufrin.vhsrental.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "catalog.import")
+public record CatalogImportProperties(int batchSize, int maxReportedErrors, int maxLineLength) {
+}
@@ -0,0 +1,78 @@
+package com.ekufrin.vhsrental.config;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Change counters behind the catalog, genre and review ETags. A counter is bumped only after its write commits and a
+ * request reads its tag before querying, so a tag can be older than the body it was sent with but never newer.
+ */
+@Component
+public class CatalogVersions {
+    private static final int STRIPES = 1024;
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong catalog = new AtomicLong();
+    private final AtomicLong genres = new AtomicLong();
+    private final AtomicLongArray titles = new AtomicLongArray(STRIPES);
+    private final AtomicLongArray reviews = new AtomicLongArray(STRIPES);
+
+    public String catalogETag() {
+        return tag("c", catalog.get());
+    }
+
+    public String vhsETag(UUID vhsId) {
+        return tag("v", titles.get(stripe(vhsId)));
+    }
+
+    public String genresETag() {
+        return tag("g", genres.get());
+    }
+
+    public String reviewsETag(UUID vhsId) {
+        return tag("r", reviews.get(stripe(vhsId)));
+    }
+
+    public void bump(String entity, Object id) {
+        switch (entity) {
+            case CatalogChangeEvent.VHS -> {
+                catalog.incrementAndGet();
+                titles.incrementAndGet(stripe(UUID.fromString(id.toString())));
+            }
+            case CatalogChangeEvent.GENRE -> genres.incrementAndGet();
+            case CatalogChangeEvent.REVIEW -> reviews.incrementAndGet(stripe(UUID.fromString(id.toString())));
+            default -> {
+            }
+        }
+    }
+
+    // Runs after CatalogCacheEvictor, so a request that sees the new tag can no longer be served the evicted entry.
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.isEverything()) {
+            catalog.incrementAndGet();
+            genres.incrementAndGet();
+            for (int i = 0; i < STRIPES; i++) {
+                titles.incrementAndGet(i);
+                reviews.incrementAndGet(i);
+            }
+        } else {
+            bump(event.entity(), event.id());
+        }
+    }
+
+    private String tag(String scope, long version) {
+        return "\"" + scope + "-" + epoch + "-" + version + "\"";
+    }
+
+    private static int stripe(UUID vhsId) {
+        return Math.floorMod(vhsId.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ekufrin.vhsrental.config;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. There is no total count; clients keep passing
+ * {@code nextCursor} back until {@code hasNext} is false.
+ */
+public record CursorSlice<T>(List<T> content, String nextCursor, boolean hasNext) {
+    public <R> CursorSlice<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorSlice<>(content.stream().<R>map(mapper).toList(), nextCursor, hasNext);
+    }
+}
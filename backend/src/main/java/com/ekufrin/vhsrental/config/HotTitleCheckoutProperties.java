@@ -0,0 +1,16 @@
+package com.ekufrin.vhsrental.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "rental.checkout.hot-title")
+public record HotTitleCheckoutProperties(
+        boolean enabled,
+        int contentionThreshold,
+        int maxBatchSize,
+        int queueCapacity,
+        Duration idleTimeout,
+        Duration responseTimeout
+) {
+}
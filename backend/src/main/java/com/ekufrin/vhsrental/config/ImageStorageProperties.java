@@ -0,0 +1,29 @@
+package com.ekufrin.vhsrental.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "image.storage")
+public record ImageStorageProperties(
+        Backend backend,
+        Path scratchDirectory,
+        DataSize maxFileSize,
+        int maxConcurrentUploads,
+        Duration acquireTimeout,
+        Local local,
+        S3 s3
+) {
+    public enum Backend {
+        LOCAL,
+        S3
+    }
+
+    public record Local(Path directory, int shardDepth) {
+    }
+
+    public record S3(String endpoint, String bucket, String region, String accessKey, String secretKey, boolean pathStyleAccess) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.ekufrin.vhsrental.config;
+
+import com.ekufrin.vhsrental.image.ImageStore;
+import com.ekufrin.vhsrental.image.LocalImageStore;
+import com.ekufrin.vhsrental.image.S3ImageStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ImageStoreConfiguration {
+
+    @Bean
+    public ImageStore imageStore(ImageStorageProperties properties) {
+        return switch (properties.backend()) {
+            case LOCAL -> new LocalImageStore(properties.local());
+            case S3 -> new S3ImageStore(S3ImageStore.createClient(properties.s3()), properties.s3().bucket());
+        };
+    }
+}
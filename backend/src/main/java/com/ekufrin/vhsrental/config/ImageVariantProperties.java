@@ -0,0 +1,7 @@
+package com.ekufrin.vhsrental.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "image.variants")
+public record ImageVariantProperties(boolean enabled, int maxConcurrentJobs, float jpegQuality, long maxSourcePixels) {
+}
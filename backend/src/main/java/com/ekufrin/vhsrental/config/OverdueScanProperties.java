@@ -0,0 +1,7 @@
+package com.ekufrin.vhsrental.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "rental.overdue-scan")
+public record OverdueScanProperties(boolean enabled, int batchSize) {
+}
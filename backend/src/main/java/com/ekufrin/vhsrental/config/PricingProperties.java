@@ -0,0 +1,12 @@
+package com.ekufrin.vhsrental.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "pricing")
+public record PricingProperties(
+        int lateFeePercent,
+        int weekendSurchargePercent,
+        int loyaltyDiscountPercent,
+        int loyaltyMinRentals
+) {
+}
@@ -0,0 +1,9 @@
+package com.ekufrin.vhsrental.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Period;
+
+@ConfigurationProperties(prefix = "rental.partitions")
+public record RentalPartitionProperties(boolean enabled, int monthsAhead, Period archiveAfter, int archiveBatchSize) {
+}
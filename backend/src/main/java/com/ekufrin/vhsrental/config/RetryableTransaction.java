@@ -0,0 +1,18 @@
+package com.ekufrin.vhsrental.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs the transactional method on a serialization failure, deadlock or optimistic-lock conflict. The value names
+ * the operation for its budget under {@code transaction.retry.operations} and the retry metrics.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryableTransaction {
+    String value();
+}
@@ -0,0 +1,29 @@
+package com.ekufrin.vhsrental.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class TransactionRetryConfiguration {
+    // Must wrap the transaction interceptor so that every attempt runs in a fresh transaction.
+    private static final int RETRY_ADVISOR_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public Advisor transactionRetryAdvisor(TransactionRetryProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, RetryableTransaction.class, true),
+                new TransactionRetryInterceptor(properties, meterRegistry)
+        );
+        advisor.setOrder(RETRY_ADVISOR_ORDER);
+        return advisor;
+    }
+}
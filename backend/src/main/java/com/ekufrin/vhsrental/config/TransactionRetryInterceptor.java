@@ -0,0 +1,83 @@
+package com.ekufrin.vhsrental.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionRetryInterceptor implements MethodInterceptor {
+    private static final Set<String> RETRYABLE_SQL_STATES = Set.of("40001", "40P01");
+    private final TransactionRetryProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RetryableTransaction retryable = AnnotatedElementUtils.findMergedAnnotation(invocation.getMethod(), RetryableTransaction.class);
+        // Retrying inside an outer transaction cannot help: the outer one is already doomed.
+        if (retryable == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+
+        String operation = retryable.value();
+        TransactionRetryProperties.Budget budget = properties.budgetFor(operation);
+        for (int attempt = 1; ; attempt++) {
+            count("transaction.retry.attempts", operation);
+            try {
+                return ((ProxyMethodInvocation) invocation).invocableClone().proceed();
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+                if (attempt >= budget.maxAttempts()) {
+                    count("transaction.retry.give-ups", operation);
+                    log.warn("Giving up on {} after {} attempts: {}", operation, attempt, e.getMessage());
+                    throw e;
+                }
+                count("transaction.retry.retries", operation);
+                long backoff = backoffMillis(budget, attempt);
+                log.debug("Retrying {} after conflict attempt={} backoffMs={}", operation, attempt, backoff);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private long backoffMillis(TransactionRetryProperties.Budget budget, int attempt) {
+        double exponential = budget.initialBackoff().toMillis() * Math.pow(properties.multiplier(), attempt - 1);
+        long cap = (long) Math.min(exponential, budget.maxBackoff().toMillis());
+        // Full jitter keeps retrying transactions from colliding again in lockstep.
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private void count(String name, String operation) {
+        meterRegistry.ifAvailable(registry -> registry.counter(name, "operation", operation).increment());
+    }
+
+    static boolean isRetryable(Throwable throwable) {
+        for (Throwable current = throwable; current != null; current = current.getCause()) {
+            if (current instanceof ConcurrencyFailureException) {
+                return true;
+            }
+            if (current instanceof SQLException sqlException && RETRYABLE_SQL_STATES.contains(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
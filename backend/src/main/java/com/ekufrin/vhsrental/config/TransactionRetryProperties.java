@@ -0,0 +1,30 @@
+package com.ekufrin.vhsrental.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "transaction.retry")
+public record TransactionRetryProperties(
+        int maxAttempts,
+        Duration initialBackoff,
+        Duration maxBackoff,
+        double multiplier,
+        Map<String, Budget> operations
+) {
+    public Budget budgetFor(String operation) {
+        Budget override = operations != null ? operations.get(operation) : null;
+        if (override == null) {
+            return new Budget(maxAttempts, initialBackoff, maxBackoff);
+        }
+        return new Budget(
+                override.maxAttempts() != null ? override.maxAttempts() : maxAttempts,
+                override.initialBackoff() != null ? override.initialBackoff() : initialBackoff,
+                override.maxBackoff() != null ? override.maxBackoff() : maxBackoff
+        );
+    }
+
+    public record Budget(Integer maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+    }
+}
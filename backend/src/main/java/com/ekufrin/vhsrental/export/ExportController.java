@@ -0,0 +1,53 @@
+package com.ekufrin.vhsrental.export;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Streams whole datasets as NDJSON or CSV, written synchronously so long exports are not cut off by the async timeout.
+ */
+@RestController
+@RequestMapping("/exports")
+@RequiredArgsConstructor
+public class ExportController {
+    private final ExportService exportService;
+
+    @GetMapping("/rentals")
+    public void exportRentals(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        prepare(response, "rentals", exportFormat);
+        exportService.exportRentals(exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping("/catalog")
+    public void exportCatalog(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        prepare(response, "catalog", exportFormat);
+        exportService.exportCatalog(exportFormat, response.getOutputStream());
+    }
+
+    @GetMapping("/reviews")
+    public void exportReviews(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        prepare(response, "reviews", exportFormat);
+        exportService.exportReviews(exportFormat, response.getOutputStream());
+    }
+
+    private static void prepare(HttpServletResponse response, String dataset, ExportFormat format) {
+        response.setContentType(format.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(dataset + "-" + LocalDate.now(ZoneOffset.UTC) + "." + format.extension())
+                .build()
+                .toString());
+    }
+}
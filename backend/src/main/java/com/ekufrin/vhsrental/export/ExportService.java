@@ -0,0 +1,59 @@
+package com.ekufrin.vhsrental.export;
+
+import com.ekufrin.vhsrental.rental.RentalExportRow;
+import com.ekufrin.vhsrental.rental.RentalRepository;
+import com.ekufrin.vhsrental.review.ReviewExportRow;
+import com.ekufrin.vhsrental.review.ReviewRepository;
+import com.ekufrin.vhsrental.vhs.VHSExportRow;
+import com.ekufrin.vhsrental.vhs.VHSRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Full-table exports, each read through a server-side cursor; the fetch size only takes effect inside a transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+    private final RentalRepository rentalRepository;
+    private final VHSRepository vhsRepository;
+    private final ReviewRepository reviewRepository;
+    private final JsonMapper jsonMapper;
+
+    @Transactional(readOnly = true)
+    public long exportRentals(ExportFormat format, OutputStream output) throws IOException {
+        try (Stream<RentalExportRow> rows = rentalRepository.streamAllForExport()) {
+            return write("rentals", rows, RentalExportRow.class, format, output);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportCatalog(ExportFormat format, OutputStream output) throws IOException {
+        try (Stream<VHSExportRow> rows = vhsRepository.streamAllForExport()) {
+            return write("catalog", rows, VHSExportRow.class, format, output);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportReviews(ExportFormat format, OutputStream output) throws IOException {
+        try (Stream<ReviewExportRow> rows = reviewRepository.streamAllForExport()) {
+            return write("reviews", rows, ReviewExportRow.class, format, output);
+        }
+    }
+
+    private <T extends Record> long write(String dataset, Stream<T> rows, Class<T> type, ExportFormat format,
+                                          OutputStream output) throws IOException {
+        long started = System.nanoTime();
+        long count = ExportWriter.write(rows, type, format, jsonMapper, output);
+        log.info("Export finished dataset={} format={} rows={} millis={}", dataset, format, count, (System.nanoTime() - started) / 1_000_000);
+        return count;
+    }
+}
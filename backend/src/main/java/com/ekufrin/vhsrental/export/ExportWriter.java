@@ -0,0 +1,74 @@
+package com.ekufrin.vhsrental.export;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes export rows as NDJSON, or as CSV with a header taken from the record's components.
+ */
+final class ExportWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ExportWriter() {
+    }
+
+    static <T extends Record> long write(Stream<T> rows, Class<T> type, ExportFormat format, JsonMapper jsonMapper,
+                                         OutputStream output) throws IOException {
+        RecordComponent[] components = type.getRecordComponents();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == ExportFormat.CSV) {
+            for (int i = 0; i < components.length; i++) {
+                writer.write(i == 0 ? "" : ",");
+                writer.write(components[i].getName());
+            }
+            writer.write("\r\n");
+        }
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                for (int i = 0; i < components.length; i++) {
+                    writer.write(i == 0 ? "" : ",");
+                    writer.write(csvValue(value(components[i], row)));
+                }
+                writer.write("\r\n");
+            } else {
+                writer.write(jsonMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static Object value(RecordComponent component, Record row) {
+        try {
+            return component.getAccessor().invoke(row);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot read " + component.getName() + " of " + row.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -2,6 +2,7 @@ package com.ekufrin.vhsrental.genre;
 
 import com.ekufrin.vhsrental.config.ApiResponse;
 import com.ekufrin.vhsrental.config.ApiResponseFactory;
+import com.ekufrin.vhsrental.config.CatalogVersions;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -9,6 +10,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -18,6 +20,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class GenreController {
     private final GenreService genreService;
+    private final CatalogVersions catalogVersions;
 
     @PostMapping
     public ResponseEntity<ApiResponse<GenreDTO>> createGenre(@RequestBody @Valid GenreCreateRequest request) {
@@ -26,14 +29,22 @@ public class GenreController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<GenreDTO>>> getAllGenres(Pageable pageable) {
+    public ResponseEntity<ApiResponse<Page<GenreDTO>>> getAllGenres(Pageable pageable, WebRequest webRequest) {
+        String etag = catalogVersions.genresETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         Page<GenreDTO> genres = genreService.getAllGenres(pageable);
-        return ApiResponseFactory.success("Genres retrieved successfully", genres, HttpStatus.OK);
+        return ApiResponseFactory.success("Genres retrieved successfully", genres, HttpStatus.OK, etag);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<GenreDTO>> getGenreById(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<GenreDTO>> getGenreById(@PathVariable UUID id, WebRequest webRequest) {
+        String etag = catalogVersions.genresETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         GenreDTO genre = genreService.getGenreById(id);
-        return ApiResponseFactory.success("Genre retrieved successfully", genre, HttpStatus.OK);
+        return ApiResponseFactory.success("Genre retrieved successfully", genre, HttpStatus.OK, etag);
     }
 }
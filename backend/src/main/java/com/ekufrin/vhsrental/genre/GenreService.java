@@ -1,8 +1,14 @@
 package com.ekufrin.vhsrental.genre;
 
+import com.ekufrin.vhsrental.config.CacheConfiguration;
+import com.ekufrin.vhsrental.config.CacheInvalidationBus;
+import com.ekufrin.vhsrental.config.CatalogChangeEvent;
+import com.ekufrin.vhsrental.config.RetryableTransaction;
 import com.ekufrin.vhsrental.exception.ResourceAlreadyExistsException;
 import com.ekufrin.vhsrental.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -16,7 +22,10 @@ import java.util.UUID;
 public class GenreService {
     private final GenreRepository genreRepository;
     private final GenreMapper genreMapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
+    @CachePut(cacheNames = CacheConfiguration.GENRE_BY_ID, key = "#result.id()")
+    @RetryableTransaction("genre-create")
     @Transactional(isolation = Isolation.SERIALIZABLE)
     public GenreDTO createGenre(GenreCreateRequest request) {
         if (genreRepository.existsByName(request.name())) {
@@ -27,6 +36,7 @@ public class GenreService {
                 .build();
 
         Genre savedGenre = genreRepository.save(genre);
+        cacheInvalidationBus.publish(CatalogChangeEvent.GENRE, savedGenre.getId());
         return genreMapper.toDTO(savedGenre);
     }
 
@@ -35,6 +45,7 @@ public class GenreService {
         return genreMapper.toDTO(genreRepository.findAll(pageable));
     }
 
+    @Cacheable(cacheNames = CacheConfiguration.GENRE_BY_ID, key = "#id")
     @Transactional(readOnly = true)
     public GenreDTO getGenreById(UUID id) {
         return genreMapper.toDTO(genreRepository.findById(id)
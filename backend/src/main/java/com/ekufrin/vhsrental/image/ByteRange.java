@@ -0,0 +1,52 @@
+package com.ekufrin.vhsrental.image;
+
+import java.util.Optional;
+
+/**
+ * An inclusive byte range of a file of known length, parsed from a single-range {@code Range} header.
+ */
+record ByteRange(long start, long end) {
+    static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+    private static final String UNIT = "bytes=";
+
+    long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Empty when the header is absent, malformed or asks for several ranges, in which case the whole file is sent;
+     * {@link #UNSATISFIABLE} when it lies entirely past the end of the file.
+     */
+    static Optional<ByteRange> parse(String header, long fileLength) {
+        if (header == null || !header.startsWith(UNIT) || header.indexOf(',') >= 0) {
+            return Optional.empty();
+        }
+        String spec = header.substring(UNIT.length()).strip();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return Optional.empty();
+        }
+        try {
+            String first = spec.substring(0, dash).strip();
+            String last = spec.substring(dash + 1).strip();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return Optional.of(UNSATISFIABLE);
+                }
+                return Optional.of(new ByteRange(Math.max(0, fileLength - suffix), fileLength - 1));
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? fileLength - 1 : Math.min(Long.parseLong(last), fileLength - 1);
+            if (start >= fileLength) {
+                return Optional.of(UNSATISFIABLE);
+            }
+            if (end < start) {
+                return Optional.empty();
+            }
+            return Optional.of(new ByteRange(start, end));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.ekufrin.vhsrental.image;
+
+import com.ekufrin.vhsrental.exception.ResourceNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.regex.Pattern;
+
+/**
+ * Serves cover images from the {@link ImageStore}. An image name never changes content, so responses are cacheable
+ * forever and the name is the ETag.
+ */
+@RestController
+@RequestMapping("/uploads")
+@RequiredArgsConstructor
+public class ImageController {
+    static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9-]{1,160}\\.(jpg|jpeg|png)");
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private final ImageStore imageStore;
+
+    @GetMapping("/{fileName}")
+    public void getImage(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!FILE_NAME.matcher(fileName).matches()) {
+            throw new ResourceNotFoundException("Image", "name", fileName);
+        }
+        String etag = "\"" + fileName.substring(0, fileName.lastIndexOf('.')) + "\"";
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            setCacheHeaders(response, etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        OptionalLong size = imageStore.size(fileName);
+        if (size.isEmpty()) {
+            serveBundled(fileName, etag, request, response);
+            return;
+        }
+        setCacheHeaders(response, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(ImageType.mediaTypeOf(fileName));
+        long fileLength = size.getAsLong();
+        ByteRange range = new ByteRange(0, fileLength - 1);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        Optional<ByteRange> requested = ifRange == null || ifRange.equals(etag)
+                ? ByteRange.parse(request.getHeader(HttpHeaders.RANGE), fileLength)
+                : Optional.empty();
+        if (requested.isPresent()) {
+            if (requested.get() == ByteRange.UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileLength);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            range = requested.get();
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + fileLength);
+        }
+        response.setContentLengthLong(range.length());
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        Optional<Path> localPath = imageStore.localPath(fileName);
+        if (localPath.isPresent()) {
+            sendLocal(localPath.get(), range, request, response);
+            return;
+        }
+        try (InputStream input = imageStore.open(fileName, range.start(), range.length())) {
+            input.transferTo(response.getOutputStream());
+        }
+    }
+
+    private static void sendLocal(Path path, ByteRange range, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = range.start();
+            long remaining = range.length();
+            while (remaining > 0) {
+                long sent = file.transferTo(position, remaining, out);
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * Covers that shipped inside the application, before uploads moved to the image store. They are small and
+     * rarely requested, so they are sent whole without range support.
+     */
+    private void serveBundled(String fileName, String etag, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ClassPathResource bundled = new ClassPathResource("static/uploads/" + fileName);
+        if (!bundled.exists()) {
+            throw new ResourceNotFoundException("Image", "name", fileName);
+        }
+        setCacheHeaders(response, etag);
+        response.setContentType(ImageType.mediaTypeOf(fileName));
+        response.setContentLengthLong(bundled.contentLength());
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        try (InputStream input = bundled.getInputStream()) {
+            StreamUtils.copy(input, response.getOutputStream());
+        }
+    }
+
+    private static void setCacheHeaders(HttpServletResponse response, String etag) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ekufrin.vhsrental.image;
+
+import com.ekufrin.vhsrental.config.ImageStorageProperties;
+import com.ekufrin.vhsrental.exception.InvalidOperationException;
+import com.ekufrin.vhsrental.exception.ServiceBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Content-addressed upload pipeline for cover art: images are stored as {@code <sha256><extension>}, with the format
+ * taken from the magic bytes rather than from the client.
+ */
+@Component
+@Slf4j
+public class ImageStorage {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private final ImageStorageProperties properties;
+    private final ImageStore imageStore;
+    private final Semaphore uploadPermits;
+
+    public ImageStorage(ImageStorageProperties properties, ImageStore imageStore) {
+        this.properties = properties;
+        this.imageStore = imageStore;
+        this.uploadPermits = new Semaphore(properties.maxConcurrentUploads(), true);
+    }
+
+    public StoredImage store(MultipartFile image) {
+        if (image.getSize() > properties.maxFileSize().toBytes()) {
+            throw tooLarge();
+        }
+        acquirePermit();
+        try (InputStream input = image.getInputStream()) {
+            return store(Channels.newChannel(input));
+        } catch (IOException e) {
+            throw new InvalidOperationException("Failed to save image: " + e.getMessage(), e);
+        } finally {
+            uploadPermits.release();
+        }
+    }
+
+    /**
+     * A fresh file in the scratch directory, for content that is about to be handed to the {@link ImageStore}.
+     */
+    public Path createScratchFile(String prefix) throws IOException {
+        Files.createDirectories(properties.scratchDirectory());
+        return Files.createTempFile(properties.scratchDirectory(), prefix, ".tmp");
+    }
+
+    private StoredImage store(ReadableByteChannel source) throws IOException {
+        Path temp = createScratchFile("upload-");
+        try {
+            MessageDigest digest = sha256();
+            ImageType type = null;
+            long written = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            try (FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (fill(source, buffer) > 0) {
+                    buffer.flip();
+                    if (type == null) {
+                        type = ImageType.detect(buffer.array(), buffer.limit())
+                                .orElseThrow(() -> new InvalidOperationException("Invalid file type. Only JPEG and PNG are allowed"));
+                    }
+                    written += buffer.remaining();
+                    if (written > properties.maxFileSize().toBytes()) {
+                        throw tooLarge();
+                    }
+                    digest.update(buffer);
+                    buffer.rewind();
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                target.force(true);
+            }
+            if (type == null) {
+                throw new InvalidOperationException("Image file is empty");
+            }
+
+            StoredImage stored = new StoredImage(HexFormat.of().formatHex(digest.digest()), type.extension());
+            if (imageStore.exists(stored.fileName())) {
+                log.info("Image deduplicated hash={} bytes={}", stored.hash(), written);
+            } else {
+                // Identical content under an identical name, so losing a race with a concurrent upload is harmless.
+                imageStore.put(stored.fileName(), temp);
+                log.info("Image stored hash={} bytes={}", stored.hash(), written);
+            }
+            return stored;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads until {@code buffer} is full or the source is exhausted, so that only the last chunk can be short and
+     * the first one always holds a complete signature.
+     */
+    private static int fill(ReadableByteChannel source, ByteBuffer buffer) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = source.read(buffer);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!uploadPermits.tryAcquire(properties.acquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ServiceBusyException("Too many uploads in progress, please retry shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Upload was interrupted while waiting, please retry");
+        }
+    }
+
+    private InvalidOperationException tooLarge() {
+        return new InvalidOperationException("File too large. Maximum size is " + properties.maxFileSize().toMegabytes() + "MB");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ekufrin.vhsrental.image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Where image files live, addressed by flat file name. A name is written once and never changes, so backends need
+ * no locking.
+ */
+public interface ImageStore {
+
+    /**
+     * Size in bytes, or empty when no image has that name.
+     */
+    OptionalLong size(String name) throws IOException;
+
+    default boolean exists(String name) throws IOException {
+        return size(name).isPresent();
+    }
+
+    /**
+     * Stores the content of {@code source} under {@code name}. The store takes ownership of {@code source}: it is
+     * moved or deleted once its content is stored.
+     */
+    void put(String name, Path source) throws IOException;
+
+    /**
+     * Opens {@code length} bytes starting at {@code offset}; the caller closes the stream.
+     */
+    InputStream open(String name, long offset, long length) throws IOException;
+
+    /**
+     * The file behind {@code name} when the backend keeps images on a local filesystem, for zero-copy transfer.
+     */
+    default Optional<Path> localPath(String name) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,49 @@
+package com.ekufrin.vhsrental.image;
+
+import java.util.Optional;
+
+/**
+ * Image formats accepted for cover art, recognized by their leading magic bytes.
+ */
+public enum ImageType {
+    JPEG(".jpg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+    PNG(".png", new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+
+    static final int MAX_SIGNATURE_LENGTH = 8;
+    private final String extension;
+    private final byte[] signature;
+
+    ImageType(String extension, byte[] signature) {
+        this.extension = extension;
+        this.signature = signature;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static String mediaTypeOf(String fileName) {
+        return fileName.endsWith(PNG.extension) ? "image/png" : "image/jpeg";
+    }
+
+    public static Optional<ImageType> detect(byte[] header, int length) {
+        for (ImageType type : values()) {
+            if (type.matches(header, length)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean matches(byte[] header, int length) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (header[i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ekufrin.vhsrental.image;
+
+/**
+ * Downscaled renditions generated for every stored cover, by the width they are scaled to.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumbnail", 160),
+    CARD("card", 480),
+    DETAIL("detail", 1024);
+
+    private final String key;
+    private final int width;
+
+    ImageVariant(String key, int width) {
+        this.key = key;
+        this.width = width;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public String fileName(String hash, String extension) {
+        return hash + "-" + key + extension;
+    }
+}
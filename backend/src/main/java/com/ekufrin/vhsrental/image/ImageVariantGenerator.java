@@ -0,0 +1,177 @@
+package com.ekufrin.vhsrental.image;
+
+import com.ekufrin.vhsrental.config.ImageVariantProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Renders the {@link ImageVariant}s of stored covers on virtual threads and publishes an
+ * {@link ImageVariantsStoredEvent} once all of a cover's variants exist.
+ */
+@Component
+@Slf4j
+public class ImageVariantGenerator {
+    private final ImageStore imageStore;
+    private final ImageStorage imageStorage;
+    private final ImageVariantProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Semaphore jobPermits;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("image-variants-", 0).factory());
+
+    public ImageVariantGenerator(ImageStore imageStore, ImageStorage imageStorage, ImageVariantProperties properties,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.imageStore = imageStore;
+        this.imageStorage = imageStorage;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.jobPermits = new Semaphore(properties.maxConcurrentJobs(), true);
+    }
+
+    public void generateAsync(StoredImage image) {
+        if (!properties.enabled() || !queued.add(image.hash())) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                jobPermits.acquire();
+            } catch (InterruptedException e) {
+                queued.remove(image.hash());
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                generate(image);
+            } catch (IOException | RuntimeException e) {
+                log.error("Image variant generation failed hash={}", image.hash(), e);
+            } finally {
+                jobPermits.release();
+                queued.remove(image.hash());
+            }
+        });
+    }
+
+    void generate(StoredImage image) throws IOException {
+        boolean missing = false;
+        for (ImageVariant variant : ImageVariant.values()) {
+            missing |= !imageStore.exists(variant.fileName(image.hash(), image.extension()));
+        }
+        if (!missing) {
+            eventPublisher.publishEvent(new ImageVariantsStoredEvent(image.hash()));
+            return;
+        }
+
+        BufferedImage source = read(image.fileName());
+        boolean opaque = ImageType.JPEG.extension().equals(image.extension());
+        for (ImageVariant variant : ImageVariant.values()) {
+            String name = variant.fileName(image.hash(), image.extension());
+            if (imageStore.exists(name)) {
+                continue;
+            }
+            BufferedImage scaled = scale(source, variant.width(), opaque);
+            Path temp = imageStorage.createScratchFile("variant-");
+            try {
+                write(scaled, temp, opaque);
+                imageStore.put(name, temp);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        log.info("Image variants generated hash={} sourceWidth={} sourceHeight={}", image.hash(), source.getWidth(), source.getHeight());
+        eventPublisher.publishEvent(new ImageVariantsStoredEvent(image.hash()));
+    }
+
+    private BufferedImage read(String name) throws IOException {
+        long size = imageStore.size(name).orElseThrow(() -> new IOException("No image named " + name));
+        try (InputStream stored = imageStore.open(name, 0, size);
+             ImageInputStream input = ImageIO.createImageInputStream(stored)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("No image reader for " + name);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > properties.maxSourcePixels()) {
+                    throw new IOException("Image too large to scale: " + pixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales to {@code width}, never up, halving step by step first so that bilinear filtering keeps enough
+     * detail on large reductions.
+     */
+    static BufferedImage scale(BufferedImage source, int width, boolean opaque) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = source;
+        do {
+            int stepWidth = Math.max(targetWidth, current.getWidth() / 2);
+            int stepHeight = Math.max(targetHeight, current.getHeight() / 2);
+            current = draw(current, stepWidth, stepHeight, opaque);
+        } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean opaque) {
+        BufferedImage target = new BufferedImage(width, height, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, Path path, boolean jpeg) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(jpeg ? "jpeg" : "png").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(path.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (jpeg) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(properties.jpegQuality());
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,7 @@
+package com.ekufrin.vhsrental.image;
+
+/**
+ * Every {@link ImageVariant} of the cover with this hash is stored, published by {@link ImageVariantGenerator}.
+ */
+public record ImageVariantsStoredEvent(String hash) {
+}
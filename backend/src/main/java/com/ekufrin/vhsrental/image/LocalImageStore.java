@@ -0,0 +1,120 @@
+package com.ekufrin.vhsrental.image;
+
+import com.ekufrin.vhsrental.config.ImageStorageProperties;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Keeps images on a local filesystem, sharded by the leading characters of the name ({@code ab12cd...png} lives in
+ * {@code ab/12/}). Files written before sharding are still found in the root.
+ */
+public class LocalImageStore implements ImageStore {
+    private static final int SHARD_WIDTH = 2;
+    private final Path root;
+    private final int shardDepth;
+
+    public LocalImageStore(ImageStorageProperties.Local properties) {
+        this.root = properties.directory();
+        this.shardDepth = properties.shardDepth();
+    }
+
+    @Override
+    public OptionalLong size(String name) throws IOException {
+        Optional<Path> path = localPath(name);
+        return path.isPresent() ? OptionalLong.of(Files.size(path.get())) : OptionalLong.empty();
+    }
+
+    @Override
+    public void put(String name, Path source) throws IOException {
+        Path target = shardedPath(name);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // The source is on another filesystem: copy next to the target first so the name still appears atomically.
+            Path temp = Files.createTempFile(target.getParent(), "incoming-", ".tmp");
+            try {
+                Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                Files.delete(source);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    @Override
+    public InputStream open(String name, long offset, long length) throws IOException {
+        Path path = localPath(name).orElseThrow(() -> new IOException("No image named " + name));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        channel.position(offset);
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public Optional<Path> localPath(String name) {
+        Path sharded = shardedPath(name);
+        if (Files.isRegularFile(sharded)) {
+            return Optional.of(sharded);
+        }
+        Path flat = root.resolve(name);
+        return Files.isRegularFile(flat) ? Optional.of(flat) : Optional.empty();
+    }
+
+    Path shardedPath(String name) {
+        Path directory = root;
+        for (int level = 0; level < shardDepth && (level + 1) * SHARD_WIDTH < name.length(); level++) {
+            directory = directory.resolve(name.substring(level * SHARD_WIDTH, (level + 1) * SHARD_WIDTH));
+        }
+        return directory.resolve(name);
+    }
+
+    private static final class BoundedInputStream extends InputStream {
+        private final InputStream delegate;
+        private long remaining;
+
+        BoundedInputStream(InputStream delegate, long remaining) {
+            this.delegate = delegate;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int value = delegate.read();
+            if (value >= 0) {
+                remaining--;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = delegate.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
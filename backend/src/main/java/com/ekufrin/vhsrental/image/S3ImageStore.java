@@ -0,0 +1,107 @@
+package com.ekufrin.vhsrental.image;
+
+import com.ekufrin.vhsrental.config.ImageStorageProperties;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalLong;
+
+/**
+ * Keeps images in an S3-compatible bucket (AWS S3, MinIO, Ceph RGW, ...), so every node serves the same images.
+ */
+public class S3ImageStore implements ImageStore, AutoCloseable {
+    private static final int NOT_FOUND = 404;
+    private final S3Client client;
+    private final String bucket;
+
+    public S3ImageStore(S3Client client, String bucket) {
+        this.client = client;
+        this.bucket = bucket;
+    }
+
+    public static S3Client createClient(ImageStorageProperties.S3 properties) {
+        AwsCredentialsProvider credentials = StringUtils.hasText(properties.accessKey())
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(properties.accessKey(), properties.secretKey()))
+                : DefaultCredentialsProvider.create();
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(properties.region()))
+                .credentialsProvider(credentials)
+                .forcePathStyle(properties.pathStyleAccess())
+                // Plain Content-Length uploads without trailing checksums work with every S3-compatible server;
+                // aws-chunked bodies do not.
+                .serviceConfiguration(S3Configuration.builder().chunkedEncodingEnabled(false).build())
+                .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED);
+        if (StringUtils.hasText(properties.endpoint())) {
+            builder.endpointOverride(URI.create(properties.endpoint()));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public OptionalLong size(String name) throws IOException {
+        try {
+            return OptionalLong.of(client.headObject(HeadObjectRequest.builder().bucket(bucket).key(name).build()).contentLength());
+        } catch (S3Exception e) {
+            if (e.statusCode() == NOT_FOUND) {
+                return OptionalLong.empty();
+            }
+            throw new IOException("Failed to look up image " + name, e);
+        } catch (SdkException e) {
+            throw new IOException("Failed to look up image " + name, e);
+        }
+    }
+
+    @Override
+    public void put(String name, Path source) throws IOException {
+        try {
+            client.putObject(PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(name)
+                    .contentType(ImageType.mediaTypeOf(name))
+                    .build(), RequestBody.fromFile(source));
+        } catch (SdkException e) {
+            throw new IOException("Failed to store image " + name, e);
+        } finally {
+            Files.deleteIfExists(source);
+        }
+    }
+
+    @Override
+    public InputStream open(String name, long offset, long length) throws IOException {
+        try {
+            return client.getObject(GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(name)
+                    .range("bytes=" + offset + "-" + (offset + length - 1))
+                    .build());
+        } catch (SdkException e) {
+            throw new IOException("Failed to read image " + name, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+}
@@ -0,0 +1,10 @@
+package com.ekufrin.vhsrental.image;
+
+/**
+ * An image stored under the hex SHA-256 of its content.
+ */
+public record StoredImage(String hash, String extension) {
+    public String fileName() {
+        return hash + extension;
+    }
+}
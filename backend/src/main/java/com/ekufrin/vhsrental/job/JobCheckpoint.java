@@ -0,0 +1,27 @@
+package com.ekufrin.vhsrental.job;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+    @Id
+    private String jobName;
+    private String cursor;
+    private Instant lastCompletedAt;
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,30 @@
+package com.ekufrin.vhsrental.pricing;
+
+import com.ekufrin.vhsrental.config.PricingProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds {@code pricing.late-fee-percent} of the daily price per full day late. Runs last, so the percentage rules
+ * before it adjust only the rental itself and never the fee.
+ */
+@Component
+@Order(3)
+@RequiredArgsConstructor
+public class LateFeeRule implements PricingRule {
+    private final PricingProperties properties;
+
+    @Override
+    public long apply(long totalCents, long dailyPriceCents, long rentalEpochSecond, long dueEpochSecond, long returnEpochSecond, int completedRentals) {
+        return totalCents + lateFeeCents(dailyPriceCents, dueEpochSecond, returnEpochSecond);
+    }
+
+    public long lateFeeCents(long dailyPriceCents, long dueEpochSecond, long untilEpochSecond) {
+        long daysLate = (untilEpochSecond - dueEpochSecond) / PricingEngine.SECONDS_PER_DAY;
+        if (daysLate <= 0) {
+            return 0;
+        }
+        return PricingEngine.percentOf(daysLate * dailyPriceCents, properties.lateFeePercent());
+    }
+}
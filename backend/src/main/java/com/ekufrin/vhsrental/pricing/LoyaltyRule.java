@@ -0,0 +1,30 @@
+package com.ekufrin.vhsrental.pricing;
+
+import com.ekufrin.vhsrental.config.PricingProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Takes {@code pricing.loyalty-discount-percent} off for customers with at least
+ * {@code pricing.loyalty-min-rentals} completed rentals.
+ */
+@Component
+@Order(2)
+@RequiredArgsConstructor
+public class LoyaltyRule implements PricingRule {
+    private final PricingProperties properties;
+
+    @Override
+    public long apply(long totalCents, long dailyPriceCents, long rentalEpochSecond, long dueEpochSecond, long returnEpochSecond, int completedRentals) {
+        if (properties.loyaltyDiscountPercent() == 0 || completedRentals < properties.loyaltyMinRentals()) {
+            return totalCents;
+        }
+        return totalCents - PricingEngine.percentOf(totalCents, properties.loyaltyDiscountPercent());
+    }
+
+    @Override
+    public boolean usesRentalHistory() {
+        return properties.loyaltyDiscountPercent() > 0;
+    }
+}
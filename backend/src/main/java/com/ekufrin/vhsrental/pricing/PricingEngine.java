@@ -0,0 +1,65 @@
+package com.ekufrin.vhsrental.pricing;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Prices rentals in integer cents. The base price is the daily price captured at checkout times the booked
+ * days (at least one, partial days rounded up); the configured {@link PricingRule}s then adjust it in order.
+ */
+@Component
+public class PricingEngine {
+    static final long SECONDS_PER_DAY = 86_400;
+    private static final long SECONDS_PER_HOUR = 3_600;
+    private final PricingRule[] rules;
+    private final LateFeeRule lateFeeRule;
+    private final boolean usesRentalHistory;
+
+    public PricingEngine(List<PricingRule> rules, LateFeeRule lateFeeRule) {
+        this.rules = rules.toArray(PricingRule[]::new);
+        this.lateFeeRule = lateFeeRule;
+        this.usesRentalHistory = rules.stream().anyMatch(PricingRule::usesRentalHistory);
+    }
+
+    public static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+
+    static long percentOf(long cents, int percent) {
+        return Math.round(cents * percent / 100.0);
+    }
+
+    public static long rentalDays(long rentalEpochSecond, long dueEpochSecond) {
+        long bookedHours = (dueEpochSecond - rentalEpochSecond) / SECONDS_PER_HOUR;
+        return Math.max(1, Math.ceilDiv(bookedHours, 24));
+    }
+
+    public long priceCents(long dailyPriceCents, long rentalEpochSecond, long dueEpochSecond, long returnEpochSecond, int completedRentals) {
+        long totalCents = dailyPriceCents * rentalDays(rentalEpochSecond, dueEpochSecond);
+        for (PricingRule rule : rules) {
+            totalCents = rule.apply(totalCents, dailyPriceCents, rentalEpochSecond, dueEpochSecond, returnEpochSecond, completedRentals);
+        }
+        return totalCents;
+    }
+
+    public long priceCents(long dailyPriceCents, Instant rentalDate, Instant dueDate, Instant returnDate, int completedRentals) {
+        return priceCents(dailyPriceCents, rentalDate.getEpochSecond(), dueDate.getEpochSecond(), returnDate.getEpochSecond(), completedRentals);
+    }
+
+    public long lateFeeCents(long dailyPriceCents, Instant dueDate, Instant until) {
+        return lateFeeRule.lateFeeCents(dailyPriceCents, dueDate.getEpochSecond(), until.getEpochSecond());
+    }
+
+    /**
+     * Whether any rule needs the customer's completed-rental count, so callers can skip that lookup otherwise.
+     */
+    public boolean usesRentalHistory() {
+        return usesRentalHistory;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ekufrin.vhsrental.pricing;
+
+/**
+ * One adjustment step of {@link PricingEngine}. Rules receive and return amounts in cents and take every
+ * input as a primitive so that pricing allocates nothing. Instants are passed as epoch seconds.
+ */
+public interface PricingRule {
+    long apply(long totalCents, long dailyPriceCents, long rentalEpochSecond, long dueEpochSecond, long returnEpochSecond, int completedRentals);
+
+    default boolean usesRentalHistory() {
+        return false;
+    }
+}
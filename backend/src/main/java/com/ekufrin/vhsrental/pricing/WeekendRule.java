@@ -0,0 +1,33 @@
+package com.ekufrin.vhsrental.pricing;
+
+import com.ekufrin.vhsrental.config.PricingProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds {@code pricing.weekend-surcharge-percent} to rentals that start on a Friday or Saturday (UTC).
+ */
+@Component
+@Order(1)
+@RequiredArgsConstructor
+public class WeekendRule implements PricingRule {
+    private static final int FRIDAY = 4;
+    private static final int SATURDAY = 5;
+    // 1970-01-01 was a Thursday, so epoch day 0 maps to index 3 with Monday as 0.
+    private static final int EPOCH_DAY_OF_WEEK_OFFSET = 3;
+    private final PricingProperties properties;
+
+    @Override
+    public long apply(long totalCents, long dailyPriceCents, long rentalEpochSecond, long dueEpochSecond, long returnEpochSecond, int completedRentals) {
+        if (properties.weekendSurchargePercent() == 0) {
+            return totalCents;
+        }
+        long epochDay = Math.floorDiv(rentalEpochSecond, PricingEngine.SECONDS_PER_DAY);
+        int dayOfWeek = (int) Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK_OFFSET, 7L);
+        if (dayOfWeek == FRIDAY || dayOfWeek == SATURDAY) {
+            return totalCents + PricingEngine.percentOf(totalCents, properties.weekendSurchargePercent());
+        }
+        return totalCents;
+    }
+}
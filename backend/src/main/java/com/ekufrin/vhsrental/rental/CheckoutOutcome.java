@@ -0,0 +1,11 @@
+package com.ekufrin.vhsrental.rental;
+
+record CheckoutOutcome(RentalDTO rental, RuntimeException error) {
+    static CheckoutOutcome granted(RentalDTO rental) {
+        return new CheckoutOutcome(rental, null);
+    }
+
+    static CheckoutOutcome rejected(RuntimeException error) {
+        return new CheckoutOutcome(null, error);
+    }
+}
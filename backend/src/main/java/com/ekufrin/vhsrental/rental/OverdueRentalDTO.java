@@ -0,0 +1,14 @@
+package com.ekufrin.vhsrental.rental;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record OverdueRentalDTO(
+        UUID id,
+        UUID vhsId,
+        String vhsTitle,
+        String userEmail,
+        Instant dueDate,
+        Double accruedLateFee
+) {
+}
@@ -0,0 +1,7 @@
+package com.ekufrin.vhsrental.rental;
+
+import java.time.Instant;
+import java.util.UUID;
+
+record OverdueRentalRow(UUID id, Instant dueDate, Long dailyPriceCents) {
+}
@@ -0,0 +1,86 @@
+package com.ekufrin.vhsrental.rental;
+
+import com.ekufrin.vhsrental.config.CursorCodec;
+import com.ekufrin.vhsrental.config.OverdueScanProperties;
+import com.ekufrin.vhsrental.job.JobCheckpoint;
+import com.ekufrin.vhsrental.job.JobCheckpointRepository;
+import com.ekufrin.vhsrental.pricing.PricingEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stores the late fee accrued by overdue open rentals. Each batch commits with its checkpoint, so an interrupted run
+ * resumes after the last committed rental.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OverdueRentalScanner {
+    static final String JOB_NAME = "overdue-rental-scan";
+    static final Instant KEYSET_START_DUE_DATE = Instant.EPOCH;
+    static final UUID KEYSET_START_ID = new UUID(0L, 0L);
+    private final RentalRepository rentalRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PricingEngine pricingEngine;
+    private final OverdueScanProperties properties;
+
+    @Scheduled(fixedDelayString = "${rental.overdue-scan.fixed-delay}", initialDelayString = "${rental.overdue-scan.initial-delay}")
+    public void scheduledScan() {
+        if (properties.enabled()) {
+            scan();
+        }
+    }
+
+    public int scan() {
+        Instant asOf = Instant.now();
+        int processed = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(_ -> scanBatch(asOf));
+            processed += batch;
+        } while (batch > 0);
+        log.info("Overdue rental scan completed asOf={} processed={}", asOf, processed);
+        return processed;
+    }
+
+    private int scanBatch(Instant asOf) {
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> JobCheckpoint.builder().jobName(JOB_NAME).build());
+        Instant afterDueDate = KEYSET_START_DUE_DATE;
+        UUID afterId = KEYSET_START_ID;
+        if (checkpoint.getCursor() != null) {
+            String[] position = CursorCodec.decode(checkpoint.getCursor(), 2);
+            afterDueDate = Instant.parse(position[0]);
+            afterId = UUID.fromString(position[1]);
+        }
+
+        List<OverdueRentalRow> rows = rentalRepository.findOverdueRowsAfter(asOf, afterDueDate, afterId, Limit.of(properties.batchSize()));
+        if (rows.isEmpty()) {
+            checkpoint.setCursor(null);
+            checkpoint.setLastCompletedAt(asOf);
+        } else {
+            jdbcTemplate.batchUpdate("UPDATE rentals SET accrued_late_fee = ? WHERE id = ?", rows, rows.size(), (statement, row) -> {
+                long feeCents = pricingEngine.lateFeeCents(row.dailyPriceCents(), row.dueDate(), asOf);
+                statement.setBigDecimal(1, BigDecimal.valueOf(feeCents, 2));
+                statement.setObject(2, row.id());
+            });
+            OverdueRentalRow last = rows.getLast();
+            checkpoint.setCursor(CursorCodec.encode(last.dueDate(), last.id()));
+        }
+        checkpoint.setUpdatedAt(Instant.now());
+        jobCheckpointRepository.save(checkpoint);
+        return rows.size();
+    }
+}
@@ -0,0 +1,10 @@
+package com.ekufrin.vhsrental.rental;
+
+import java.time.Instant;
+
+public record OverdueSummaryDTO(
+        long overdueRentals,
+        double totalAccruedLateFee,
+        Instant lastScanCompletedAt
+) {
+}
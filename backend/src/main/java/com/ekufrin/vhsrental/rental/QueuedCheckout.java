@@ -0,0 +1,15 @@
+package com.ekufrin.vhsrental.rental;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+record QueuedCheckout(RentalCreateRequest request, String userEmail, CompletableFuture<RentalDTO> result, AtomicBoolean taken) {
+    QueuedCheckout(RentalCreateRequest request, String userEmail) {
+        this(request, userEmail, new CompletableFuture<>(), new AtomicBoolean());
+    }
+
+    // Called by the worker before granting and by a caller giving up; only the first of the two succeeds.
+    boolean take() {
+        return taken.compareAndSet(false, true);
+    }
+}
@@ -1,6 +1,6 @@
 package com.ekufrin.vhsrental.rental;
 
-import com.ekufrin.vhsrental.exception.NotReturned;
+import com.ekufrin.vhsrental.pricing.PricingEngine;
 import com.ekufrin.vhsrental.user.User;
 import com.ekufrin.vhsrental.vhs.VHS;
 import com.fasterxml.jackson.annotation.JsonBackReference;
@@ -11,7 +11,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.UuidGenerator;
 
-import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -22,7 +21,6 @@ import java.util.UUID;
 @Builder
 @Table(name = "rentals")
 public class Rental {
-    public static final double LATE_FEE_MULTIPLIER = 0.1;
     @Id
     @UuidGenerator
     private UUID id;
@@ -40,33 +38,16 @@ public class Rental {
     @Column(nullable = false)
     private Instant dueDate;
     private Instant returnDate;
-    private Double price;
-
-    public synchronized void calculatePrice() {
-        if (returnDate == null) {
-            throw new NotReturned(NotReturned.DEFAULT_MESSAGE);
-        }
-
-        Double rentalPrice = (vhs != null) ? vhs.getRentalPrice() : null;
-        if (rentalPrice == null) {
-            throw new IllegalStateException("Rental price is not available for this rental.");
-        }
-
-        double lateFee = 0.0;
-        if (returnDate.isAfter(dueDate)) {
-            lateFee = calculateLateFee(rentalPrice);
-        }
-
-        long rentalDays = Math.max(1, (long) Math.ceil(Duration.between(rentalDate, dueDate).toHours() / 24.0));
-        this.price = Math.round((rentalPrice * rentalDays + lateFee) * 100.0) / 100.0;
-
-    }
-
-    private Double calculateLateFee(Double basePrice) {
-        long daysLate = Duration.between(dueDate, returnDate).toDays();
-        if (daysLate <= 0) {
-            return 0.0;
-        }
-        return daysLate * (basePrice * LATE_FEE_MULTIPLIER);
+    @Column(nullable = false)
+    private Long dailyPriceCents;
+    private Long priceCents;
+    private Double accruedLateFee;
+    // Partition key, flipped only by RentalPartitionMaintenance when a finished rental moves to the archive.
+    @Column(insertable = false, updatable = false)
+    private boolean archived;
+
+    // The charged amount in currency units, derived so that priceCents stays the only stored price.
+    public Double getPrice() {
+        return priceCents != null ? PricingEngine.toAmount(priceCents) : null;
     }
 }
@@ -0,0 +1,14 @@
+package com.ekufrin.vhsrental.rental;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record RentalBatchCreateRequest(
+        @NotEmpty(message = "Items cannot be empty")
+        @Size(max = 25, message = "A batch cannot contain more than 25 items")
+        List<@Valid RentalCreateRequest> items
+) {
+}
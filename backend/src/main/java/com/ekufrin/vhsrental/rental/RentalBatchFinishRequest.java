@@ -0,0 +1,15 @@
+package com.ekufrin.vhsrental.rental;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record RentalBatchFinishRequest(
+        @NotEmpty(message = "Rental IDs cannot be empty")
+        @Size(max = 100, message = "A batch cannot contain more than 100 rentals")
+        List<@NotNull(message = "Rental ID cannot be null") UUID> rentalIds
+) {
+}
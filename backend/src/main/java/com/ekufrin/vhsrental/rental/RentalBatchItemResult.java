@@ -0,0 +1,17 @@
+package com.ekufrin.vhsrental.rental;
+
+public record RentalBatchItemResult(
+        int index,
+        String id,
+        boolean success,
+        RentalDTO rental,
+        String error
+) {
+    static RentalBatchItemResult success(int index, String id, RentalDTO rental) {
+        return new RentalBatchItemResult(index, id, true, rental, null);
+    }
+
+    static RentalBatchItemResult failure(int index, String id, String error) {
+        return new RentalBatchItemResult(index, id, false, null, error);
+    }
+}
@@ -0,0 +1,167 @@
+package com.ekufrin.vhsrental.rental;
+
+import com.ekufrin.vhsrental.config.HotTitleCheckoutProperties;
+import com.ekufrin.vhsrental.exception.ServiceBusyException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes checkouts to {@link RentalService}. Titles with more concurrent checkouts than
+ * {@code rental.checkout.hot-title.contention-threshold} are served by one worker, in arrival order and in batches.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RentalCheckoutQueue {
+    private final RentalService rentalService;
+    private final HotTitleCheckoutProperties properties;
+    private final Map<UUID, AtomicInteger> inFlightByTitle = new ConcurrentHashMap<>();
+    private final Map<UUID, TitleWorker> workers = new ConcurrentHashMap<>();
+
+    public RentalDTO checkout(RentalCreateRequest request, String userEmail) {
+        UUID vhsId = UUID.fromString(request.vhsId());
+        AtomicInteger inFlight = inFlightByTitle.computeIfAbsent(vhsId, _ -> new AtomicInteger());
+        int concurrent = inFlight.incrementAndGet();
+        try {
+            if (properties.enabled() && (concurrent > properties.contentionThreshold() || workers.containsKey(vhsId))) {
+                return await(enqueue(vhsId, request, userEmail));
+            }
+            return rentalService.createRental(request, userEmail);
+        } finally {
+            if (inFlight.decrementAndGet() == 0) {
+                inFlightByTitle.remove(vhsId, inFlight);
+            }
+        }
+    }
+
+    private QueuedCheckout enqueue(UUID vhsId, RentalCreateRequest request, String userEmail) {
+        QueuedCheckout checkout = new QueuedCheckout(request, userEmail);
+        workers.compute(vhsId, (_, worker) -> {
+            if (worker == null) {
+                worker = new TitleWorker(vhsId, new LinkedBlockingQueue<>(properties.queueCapacity()));
+                Thread.ofVirtual().name("checkout-" + vhsId).start(worker);
+                log.info("Hot title checkout queue started vhsId={}", vhsId);
+            }
+            if (!worker.queue.offer(checkout)) {
+                checkout.result().completeExceptionally(
+                        new ServiceBusyException("Too many pending checkouts for this title, please retry shortly")
+                );
+            }
+            return worker;
+        });
+        return checkout;
+    }
+
+    private RentalDTO await(QueuedCheckout checkout) {
+        try {
+            checkout.result().get(properties.responseTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Once abandoned the worker skips it; if the worker took it first, its batch is already running.
+            if (checkout.take()) {
+                checkout.result().cancel(false);
+                throw new ServiceBusyException("Checkout timed out while waiting in queue, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (checkout.take()) {
+                throw new ServiceBusyException("Checkout was interrupted while waiting in queue, please retry");
+            }
+        } catch (ExecutionException e) {
+            // Rethrown by join below.
+        }
+        try {
+            return checkout.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private final class TitleWorker implements Runnable {
+        private final UUID vhsId;
+        private final BlockingQueue<QueuedCheckout> queue;
+
+        private TitleWorker(UUID vhsId, BlockingQueue<QueuedCheckout> queue) {
+            this.vhsId = vhsId;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            List<QueuedCheckout> batch = new ArrayList<>(properties.maxBatchSize());
+            try {
+                while (true) {
+                    QueuedCheckout first = queue.poll(properties.idleTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        if (retire()) {
+                            return;
+                        }
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, properties.maxBatchSize() - 1);
+                    batch.removeIf(checkout -> !checkout.take());
+                    if (!batch.isEmpty()) {
+                        process(batch);
+                    }
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                workers.remove(vhsId, this);
+                queue.drainTo(batch);
+                batch.forEach(checkout -> checkout.result().completeExceptionally(
+                        new ServiceBusyException("Checkout queue was shut down, please retry")
+                ));
+            }
+        }
+
+        private boolean retire() {
+            boolean[] retired = {false};
+            workers.computeIfPresent(vhsId, (_, worker) -> {
+                if (worker == this && queue.isEmpty()) {
+                    retired[0] = true;
+                    return null;
+                }
+                return worker;
+            });
+            if (retired[0]) {
+                log.info("Hot title checkout queue retired vhsId={}", vhsId);
+            }
+            return retired[0];
+        }
+
+        private void process(List<QueuedCheckout> batch) {
+            try {
+                List<CheckoutOutcome> outcomes = rentalService.createQueuedRentals(vhsId, batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    CheckoutOutcome outcome = outcomes.get(i);
+                    if (outcome.error() != null) {
+                        batch.get(i).result().completeExceptionally(outcome.error());
+                    } else {
+                        batch.get(i).result().complete(outcome.rental());
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Queued checkout batch failed vhsId={} size={}", vhsId, batch.size(), e);
+                batch.forEach(checkout -> checkout.result().completeExceptionally(e));
+            }
+        }
+    }
+}
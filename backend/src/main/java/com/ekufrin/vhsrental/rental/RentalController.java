@@ -2,6 +2,7 @@ package com.ekufrin.vhsrental.rental;
 
 import com.ekufrin.vhsrental.config.ApiResponse;
 import com.ekufrin.vhsrental.config.ApiResponseFactory;
+import com.ekufrin.vhsrental.config.CursorSlice;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -12,6 +13,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,25 +21,72 @@ import java.util.UUID;
 @RequestMapping("/rentals")
 public class RentalController {
     private final RentalService rentalService;
+    private final RentalCheckoutQueue rentalCheckoutQueue;
 
     @PostMapping
     public ResponseEntity<ApiResponse<RentalDTO>> createRental(@RequestBody @Valid RentalCreateRequest request, @AuthenticationPrincipal UserDetails user) {
-        RentalDTO rentalDTO = rentalService.createRental(request, user.getUsername());
+        RentalDTO rentalDTO = rentalCheckoutQueue.checkout(request, user.getUsername());
         return ApiResponseFactory.success("Rental created successfully", rentalDTO, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<RentalBatchItemResult>>> createRentals(@RequestBody @Valid RentalBatchCreateRequest request, @AuthenticationPrincipal UserDetails user) {
+        List<RentalBatchItemResult> results = rentalService.createRentals(request.items(), user.getUsername());
+        return ApiResponseFactory.success("Batch rental processed", results, HttpStatus.OK);
+    }
+
+    @PostMapping("/quote")
+    public ResponseEntity<ApiResponse<RentalQuoteDTO>> quoteRentals(@RequestBody @Valid RentalQuoteRequest request) {
+        RentalQuoteDTO quote = rentalService.quote(request.items());
+        return ApiResponseFactory.success("Quote calculated successfully", quote, HttpStatus.OK);
+    }
+
     @PatchMapping("/{rentalId}/finish")
     public ResponseEntity<ApiResponse<RentalDTO>> finishRental(@PathVariable UUID rentalId, @AuthenticationPrincipal UserDetails user) {
         RentalDTO rentalDTO = rentalService.finishRental(rentalId, user.getUsername());
         return ApiResponseFactory.success("Rental finished successfully", rentalDTO, HttpStatus.OK);
     }
 
+    @PatchMapping("/finish")
+    public ResponseEntity<ApiResponse<List<RentalBatchItemResult>>> finishRentals(@RequestBody @Valid RentalBatchFinishRequest request, @AuthenticationPrincipal UserDetails user) {
+        List<RentalBatchItemResult> results = rentalService.finishRentals(request.rentalIds(), user.getUsername());
+        return ApiResponseFactory.success("Batch finish processed", results, HttpStatus.OK);
+    }
+
+    @PatchMapping("/admin/finish")
+    public ResponseEntity<ApiResponse<List<RentalBatchItemResult>>> finishRentalsAsAdmin(@RequestBody @Valid RentalBatchFinishRequest request) {
+        List<RentalBatchItemResult> results = rentalService.finishRentalsAsAdmin(request.rentalIds());
+        return ApiResponseFactory.success("Batch finish processed", results, HttpStatus.OK);
+    }
+
     @GetMapping
     public ResponseEntity<ApiResponse<Page<RentalDTO>>> getAllRentals(Pageable pageable) {
         Page<RentalDTO> rentals = rentalService.getAllRentals(pageable);
         return ApiResponseFactory.success("Rentals retrieved successfully", rentals, HttpStatus.OK);
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<ApiResponse<CursorSlice<RentalDTO>>> scrollRentals(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorSlice<RentalDTO> rentals = rentalService.getRentalsSlice(cursor, size);
+        return ApiResponseFactory.success("Rentals retrieved successfully", rentals, HttpStatus.OK);
+    }
+
+    @GetMapping("/overdue")
+    public ResponseEntity<ApiResponse<CursorSlice<OverdueRentalDTO>>> getOverdueRentals(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorSlice<OverdueRentalDTO> rentals = rentalService.getOverdueRentals(cursor, size);
+        return ApiResponseFactory.success("Overdue rentals retrieved successfully", rentals, HttpStatus.OK);
+    }
+
+    @GetMapping("/overdue/summary")
+    public ResponseEntity<ApiResponse<OverdueSummaryDTO>> getOverdueSummary() {
+        OverdueSummaryDTO summary = rentalService.getOverdueSummary();
+        return ApiResponseFactory.success("Overdue summary retrieved successfully", summary, HttpStatus.OK);
+    }
+
     @GetMapping("/{rentalId}")
     public ResponseEntity<ApiResponse<RentalDTO>> getRentalById(@PathVariable UUID rentalId) {
         RentalDTO rentalDTO = rentalService.getRentalById(rentalId);
@@ -0,0 +1,20 @@
+package com.ekufrin.vhsrental.rental;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record RentalExportRow(
+        UUID id,
+        UUID vhsId,
+        String vhsTitle,
+        UUID userId,
+        String userEmail,
+        Instant rentalDate,
+        Instant dueDate,
+        Instant returnDate,
+        Long dailyPriceCents,
+        Long priceCents,
+        Double accruedLateFee,
+        boolean archived
+) {
+}
@@ -1,6 +1,7 @@
 package com.ekufrin.vhsrental.rental;
 
-import com.ekufrin.vhsrental.vhs.VHS;
+import com.ekufrin.vhsrental.vhs.VHSMapper;
+import com.ekufrin.vhsrental.vhs.VHSRatingDTO;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingTarget;
@@ -17,10 +18,9 @@ public interface RentalMapper {
     @AfterMapping
     default void setVhsImageUrl(@MappingTarget RentalDTO dto, Rental rental) {
         if (dto.vhs() != null && rental.getVhs() != null) {
-            VHS vhs = rental.getVhs();
-            if (vhs.getImageId() != null && vhs.getImageExtension() != null) {
-                dto.vhs().setImageUrl("/uploads/" + vhs.getImageId() + vhs.getImageExtension());
-            }
+            dto.vhs().setImageUrl(VHSMapper.imageUrl(rental.getVhs()));
+            dto.vhs().setImageVariants(VHSMapper.imageVariantUrls(rental.getVhs()));
+            dto.vhs().setRating(VHSRatingDTO.of(rental.getVhs()));
         }
     }
 }
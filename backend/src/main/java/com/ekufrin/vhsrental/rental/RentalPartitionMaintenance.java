@@ -0,0 +1,143 @@
+package com.ekufrin.vhsrental.rental;
+
+import com.ekufrin.vhsrental.config.RentalPartitionProperties;
+import com.ekufrin.vhsrental.job.JobCheckpoint;
+import com.ekufrin.vhsrental.job.JobCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Creates the monthly partitions of {@code rentals_hot} ahead of time, moves old finished rentals into
+ * {@code rentals_archive} and drops the emptied partitions.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RentalPartitionMaintenance {
+    static final String JOB_NAME = "rental-partition-maintenance";
+    private static final String PARTITION_PREFIX = "rentals_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    // Raised when the default partition already holds rows that belong in the new one.
+    private static final String CHECK_VIOLATION = "23514";
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final RentalPartitionProperties properties;
+
+    @Scheduled(cron = "${rental.partitions.cron}")
+    public void scheduledMaintenance() {
+        if (properties.enabled()) {
+            runMaintenance();
+        }
+    }
+
+    public void runMaintenance() {
+        Instant now = Instant.now();
+        YearMonth currentMonth = YearMonth.from(now.atOffset(ZoneOffset.UTC));
+        boolean partitionsCreated = true;
+        for (int i = 0; i <= properties.monthsAhead(); i++) {
+            partitionsCreated &= createPartition(currentMonth.plusMonths(i));
+        }
+
+        LocalDate cutoff = now.atOffset(ZoneOffset.UTC).toLocalDate().minus(properties.archiveAfter());
+        int archived = archiveFinishedBefore(cutoff);
+        int dropped = dropEmptyPartitionsBefore(YearMonth.from(cutoff));
+        if (!partitionsCreated) {
+            log.warn("Rental partition maintenance incomplete cutoff={} archived={} droppedPartitions={}", cutoff, archived, dropped);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(_ -> {
+            JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME)
+                    .orElseGet(() -> JobCheckpoint.builder().jobName(JOB_NAME).build());
+            checkpoint.setLastCompletedAt(now);
+            checkpoint.setUpdatedAt(Instant.now());
+            jobCheckpointRepository.save(checkpoint);
+        });
+        log.info("Rental partition maintenance completed cutoff={} archived={} droppedPartitions={}", cutoff, archived, dropped);
+    }
+
+    private boolean createPartition(YearMonth month) {
+        String sql = "CREATE TABLE IF NOT EXISTS %s PARTITION OF rentals_hot FOR VALUES FROM ('%s') TO ('%s')".formatted(
+                partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1)
+        );
+        try {
+            jdbcTemplate.execute(sql);
+            return true;
+        } catch (DataAccessException e) {
+            if (!isDefaultPartitionConflict(e)) {
+                throw e;
+            }
+            log.error("Rental partition {} not created, rows for {} are in rentals_hot_default and must be moved first",
+                    partitionName(month), month);
+            return false;
+        }
+    }
+
+    private static boolean isDefaultPartitionConflict(Throwable throwable) {
+        for (Throwable current = throwable; current != null; current = current.getCause()) {
+            if (current instanceof SQLException sqlException && CHECK_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int archiveFinishedBefore(LocalDate cutoff) {
+        Timestamp cutoffTimestamp = Timestamp.valueOf(cutoff.atStartOfDay());
+        int total = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(_ -> jdbcTemplate.update("""
+                    UPDATE rentals SET archived = true
+                    WHERE archived = false
+                    AND id IN (SELECT id FROM rentals
+                               WHERE archived = false AND return_date IS NOT NULL AND rental_date < ?
+                               LIMIT ?)
+                    """, cutoffTimestamp, properties.archiveBatchSize()));
+            total += batch;
+        } while (batch > 0);
+        return total;
+    }
+
+    private int dropEmptyPartitionsBefore(YearMonth cutoffMonth) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                INNER JOIN pg_class c ON c.oid = i.inhrelid
+                INNER JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'rentals_hot' AND c.relname LIKE 'rentals\\_p%'
+                """, String.class);
+        int dropped = 0;
+        for (String partition : partitions) {
+            YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            if (!month.isBefore(cutoffMonth)) {
+                continue;
+            }
+            Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM " + partition + ")", Boolean.class);
+            if (Boolean.TRUE.equals(empty)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                log.info("Dropped empty rental partition {}", partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
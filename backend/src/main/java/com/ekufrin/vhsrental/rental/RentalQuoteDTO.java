@@ -0,0 +1,10 @@
+package com.ekufrin.vhsrental.rental;
+
+import java.util.List;
+
+public record RentalQuoteDTO(
+        List<RentalQuoteLineDTO> items,
+        long totalCents,
+        double total
+) {
+}
@@ -0,0 +1,20 @@
+package com.ekufrin.vhsrental.rental;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+public record RentalQuoteItem(
+        String vhsId,
+        @NotNull(message = "Rental price cannot be null")
+        @Positive(message = "Rental price must be positive")
+        Double rentalPrice,
+        @NotBlank(message = "dueDate cannot be blank")
+        @Pattern(
+                regexp = "^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}Z$",
+                message = "dueDate must be in ISO 8601 format (e.g., 2023-10-05T14:48:00Z)"
+        )
+        String dueDate
+) {
+}
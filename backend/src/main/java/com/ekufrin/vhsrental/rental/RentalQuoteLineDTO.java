@@ -0,0 +1,9 @@
+package com.ekufrin.vhsrental.rental;
+
+public record RentalQuoteLineDTO(
+        String vhsId,
+        long rentalDays,
+        long priceCents,
+        double price
+) {
+}
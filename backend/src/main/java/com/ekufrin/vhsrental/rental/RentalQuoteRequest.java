@@ -0,0 +1,14 @@
+package com.ekufrin.vhsrental.rental;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record RentalQuoteRequest(
+        @NotEmpty(message = "Items cannot be empty")
+        @Size(max = 100, message = "A quote cannot contain more than 100 items")
+        List<@Valid RentalQuoteItem> items
+) {
+}
@@ -1,18 +1,28 @@
 package com.ekufrin.vhsrental.rental;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, UUID> {
 
-    long countByVhs_IdAndReturnDateIsNull(UUID vhsId);
+    long countByUser_IdAndReturnDateIsNotNull(UUID userId);
 
     @Query("""
             SELECT DISTINCT r FROM Rental r
@@ -30,4 +40,110 @@ public interface RentalRepository extends JpaRepository<Rental, UUID> {
              WHERE r.id = :id
             """)
     Optional<Rental> findById(UUID id);
+
+    @Query("""
+             SELECT r FROM Rental r
+             INNER JOIN FETCH r.vhs v
+             INNER JOIN FETCH v.genre
+             INNER JOIN FETCH r.user
+             WHERE r.id IN :ids
+            """)
+    List<Rental> findAllByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+            SELECT r FROM Rental r
+            INNER JOIN FETCH r.vhs v
+            INNER JOIN FETCH v.genre
+            INNER JOIN FETCH r.user
+            ORDER BY r.rentalDate DESC, r.id DESC
+            """)
+    List<Rental> findLatest(Limit limit);
+
+    @Query("""
+            SELECT r FROM Rental r
+            INNER JOIN FETCH r.vhs v
+            INNER JOIN FETCH v.genre
+            INNER JOIN FETCH r.user
+            WHERE (r.rentalDate, r.id) < (:rentalDate, :id)
+            ORDER BY r.rentalDate DESC, r.id DESC
+            """)
+    List<Rental> findLatestBefore(@Param("rentalDate") Instant rentalDate, @Param("id") UUID id, Limit limit);
+
+    @Query("""
+            SELECT new com.ekufrin.vhsrental.rental.UserRentalDTO(r.id, v.id, v.title, g.name, r.rentalDate, r.dueDate, r.returnDate, r.priceCents / 100.0)
+            FROM Rental r
+            INNER JOIN r.vhs v
+            INNER JOIN v.genre g
+            WHERE r.user.id = :userId
+            ORDER BY r.rentalDate DESC, r.id DESC
+            """)
+    Slice<UserRentalDTO> findHistoryByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.ekufrin.vhsrental.rental.UserRentalDTO(r.id, v.id, v.title, g.name, r.rentalDate, r.dueDate, r.returnDate, r.priceCents / 100.0)
+            FROM Rental r
+            INNER JOIN r.vhs v
+            INNER JOIN v.genre g
+            WHERE r.user.id = :userId AND r.returnDate IS NOT NULL
+            ORDER BY r.rentalDate DESC, r.id DESC
+            """)
+    Slice<UserRentalDTO> findReturnedByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.ekufrin.vhsrental.rental.UserRentalDTO(r.id, v.id, v.title, g.name, r.rentalDate, r.dueDate, r.returnDate, r.priceCents / 100.0)
+            FROM Rental r
+            INNER JOIN r.vhs v
+            INNER JOIN v.genre g
+            WHERE r.user.id = :userId AND r.returnDate IS NULL AND r.archived = false AND r.dueDate >= :now
+            ORDER BY r.dueDate, r.id
+            """)
+    Slice<UserRentalDTO> findActiveByUserId(@Param("userId") UUID userId, @Param("now") Instant now, Pageable pageable);
+
+    @Query("""
+            SELECT new com.ekufrin.vhsrental.rental.UserRentalDTO(r.id, v.id, v.title, g.name, r.rentalDate, r.dueDate, r.returnDate, r.priceCents / 100.0)
+            FROM Rental r
+            INNER JOIN r.vhs v
+            INNER JOIN v.genre g
+            WHERE r.user.id = :userId AND r.returnDate IS NULL AND r.archived = false AND r.dueDate < :now
+            ORDER BY r.dueDate, r.id
+            """)
+    Slice<UserRentalDTO> findOverdueByUserId(@Param("userId") UUID userId, @Param("now") Instant now, Pageable pageable);
+
+    @Query("""
+            SELECT new com.ekufrin.vhsrental.rental.OverdueRentalRow(r.id, r.dueDate, r.dailyPriceCents)
+            FROM Rental r
+            WHERE r.returnDate IS NULL AND r.archived = false AND r.dueDate < :asOf
+            AND (r.dueDate, r.id) > (:dueDate, :id)
+            ORDER BY r.dueDate, r.id
+            """)
+    List<OverdueRentalRow> findOverdueRowsAfter(@Param("asOf") Instant asOf, @Param("dueDate") Instant dueDate, @Param("id") UUID id, Limit limit);
+
+    @Query("""
+            SELECT new com.ekufrin.vhsrental.rental.OverdueRentalDTO(r.id, v.id, v.title, u.email, r.dueDate, r.accruedLateFee)
+            FROM Rental r
+            INNER JOIN r.vhs v
+            INNER JOIN r.user u
+            WHERE r.returnDate IS NULL AND r.archived = false AND r.dueDate < :now
+            AND (r.dueDate, r.id) > (:dueDate, :id)
+            ORDER BY r.dueDate, r.id
+            """)
+    List<OverdueRentalDTO> findOverdueAfter(@Param("now") Instant now, @Param("dueDate") Instant dueDate, @Param("id") UUID id, Limit limit);
+
+    @Query("SELECT COUNT(r) FROM Rental r WHERE r.returnDate IS NULL AND r.archived = false AND r.dueDate < :now")
+    long countOverdue(@Param("now") Instant now);
+
+    @Query("SELECT COALESCE(SUM(r.accruedLateFee), 0) FROM Rental r WHERE r.returnDate IS NULL AND r.archived = false AND r.dueDate < :now")
+    double sumAccruedLateFees(@Param("now") Instant now);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.ekufrin.vhsrental.rental.RentalExportRow(
+                r.id, v.id, v.title, u.id, u.email, r.rentalDate, r.dueDate, r.returnDate,
+                r.dailyPriceCents, r.priceCents, r.accruedLateFee, r.archived)
+            FROM Rental r
+            INNER JOIN r.vhs v
+            INNER JOIN r.user u
+            ORDER BY r.rentalDate, r.id
+            """)
+    Stream<RentalExportRow> streamAllForExport();
 }
@@ -1,33 +1,58 @@
 package com.ekufrin.vhsrental.rental;
 
+import com.ekufrin.vhsrental.config.CursorCodec;
+import com.ekufrin.vhsrental.config.CursorSlice;
+import com.ekufrin.vhsrental.config.RetryableTransaction;
 import com.ekufrin.vhsrental.exception.ForbiddenOperationException;
 import com.ekufrin.vhsrental.exception.InvalidOperationException;
+import com.ekufrin.vhsrental.exception.NotReturned;
 import com.ekufrin.vhsrental.exception.ResourceNotFoundException;
+import com.ekufrin.vhsrental.job.JobCheckpoint;
+import com.ekufrin.vhsrental.job.JobCheckpointRepository;
+import com.ekufrin.vhsrental.pricing.PricingEngine;
 import com.ekufrin.vhsrental.user.User;
 import com.ekufrin.vhsrental.user.UserRepository;
 import com.ekufrin.vhsrental.vhs.VHS;
 import com.ekufrin.vhsrental.vhs.VHSRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RentalService {
+    private static final int MAX_SLICE_SIZE = 100;
     private final RentalRepository rentalRepository;
     private final UserRepository userRepository;
     private final VHSRepository vhsRepository;
     private final RentalMapper rentalMapper;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final PricingEngine pricingEngine;
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @RetryableTransaction("rental-create")
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public RentalDTO createRental(RentalCreateRequest request, String userEmail) {
         log.info("Create rental requested for vhsId={} by userEmail={}", request.vhsId(), userEmail);
         if(Instant.parse(request.dueDate()).isBefore(Instant.now())) {
@@ -36,15 +61,18 @@ public class RentalService {
                     "Due date must be in the future"
             );
         }
-        VHS vhs = vhsRepository.findById(UUID.fromString(request.vhsId()))
-                .orElseThrow(() -> new ResourceNotFoundException("VHS", "id", request.vhsId()));
-
-        if (!isVHSAvailable(vhs)) {
-            log.warn("VHS unavailable for rental vhsId={} stockLevel={}", request.vhsId(), vhs.getStockLevel());
+        UUID vhsId = UUID.fromString(request.vhsId());
+        if (vhsRepository.reserveCopy(vhsId) == 0) {
+            if (!vhsRepository.existsById(vhsId)) {
+                throw new ResourceNotFoundException("VHS", "id", request.vhsId());
+            }
+            log.warn("VHS unavailable for rental vhsId={}", request.vhsId());
             throw new InvalidOperationException(
                     "VHS with id: " + request.vhsId() + " is not currently available for rental"
             );
         }
+        VHS vhs = vhsRepository.findById(vhsId)
+                .orElseThrow(() -> new ResourceNotFoundException("VHS", "id", request.vhsId()));
 
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
@@ -54,15 +82,131 @@ public class RentalService {
                 .user(user)
                 .rentalDate(Instant.now())
                 .dueDate(Instant.parse(request.dueDate()))
+                .dailyPriceCents(PricingEngine.toCents(vhs.getRentalPrice()))
                 .returnDate(null)
-                .price(null)
                 .build();
         rentalRepository.save(rental);
         log.info("Rental created rentalId={} vhsId={} userId={} dueDate={}", rental.getId(), vhs.getId(), user.getId(), rental.getDueDate());
         return rentalMapper.toDTO(rental);
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    /**
+     * Checks out a whole cart for one user. Titles are locked in id order, so concurrent carts cannot deadlock, and an
+     * item that cannot be granted is reported without affecting the rest of the cart.
+     */
+    @RetryableTransaction("rental-create-batch")
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<RentalBatchItemResult> createRentals(List<RentalCreateRequest> requests, String userEmail) {
+        log.info("Batch rental requested items={} by userEmail={}", requests.size(), userEmail);
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+
+        Set<UUID> vhsIds = new HashSet<>();
+        for (RentalCreateRequest request : requests) {
+            parseUuid(request.vhsId()).ifPresent(vhsIds::add);
+        }
+        Map<UUID, VHS> vhsById = vhsIds.isEmpty() ? Map.of() : vhsRepository.findAllByIdInForUpdate(vhsIds).stream()
+                .collect(Collectors.toMap(VHS::getId, Function.identity()));
+
+        Instant now = Instant.now();
+        RentalBatchItemResult[] results = new RentalBatchItemResult[requests.size()];
+        Map<Integer, Rental> rentalsByIndex = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            RentalCreateRequest request = requests.get(i);
+            Instant dueDate = parseDueDate(request.dueDate()).orElse(null);
+            VHS vhs = parseUuid(request.vhsId()).map(vhsById::get).orElse(null);
+            if (dueDate == null) {
+                results[i] = RentalBatchItemResult.failure(i, request.vhsId(), "Invalid due date: " + request.dueDate());
+            } else if (dueDate.isBefore(now)) {
+                results[i] = RentalBatchItemResult.failure(i, request.vhsId(), "Due date must be in the future");
+            } else if (vhs == null) {
+                results[i] = RentalBatchItemResult.failure(i, request.vhsId(), "VHS not found with id: '" + request.vhsId() + "'");
+            } else if (vhs.getAvailableCount() == 0) {
+                results[i] = RentalBatchItemResult.failure(i, request.vhsId(),
+                        "VHS with id: " + request.vhsId() + " is not currently available for rental");
+            } else {
+                vhs.setAvailableCount(vhs.getAvailableCount() - 1);
+                rentalsByIndex.put(i, Rental.builder()
+                        .vhs(vhs)
+                        .user(user)
+                        .rentalDate(now)
+                        .dueDate(dueDate)
+                        .dailyPriceCents(PricingEngine.toCents(vhs.getRentalPrice()))
+                        .build());
+            }
+        }
+
+        rentalRepository.saveAll(rentalsByIndex.values());
+        rentalsByIndex.forEach((index, rental) -> results[index] = RentalBatchItemResult.success(
+                index, requests.get(index).vhsId(), rentalMapper.toDTO(rental)
+        ));
+        log.info("Batch rental processed userId={} requested={} granted={}", user.getId(), requests.size(), rentalsByIndex.size());
+        return List.of(results);
+    }
+
+    /**
+     * Grants queued checkouts for one title in arrival order. The outcomes line up with {@code checkouts}.
+     */
+    @RetryableTransaction("rental-create-queued")
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    List<CheckoutOutcome> createQueuedRentals(UUID vhsId, List<QueuedCheckout> checkouts) {
+        Optional<VHS> lockedVhs = vhsRepository.findByIdForUpdate(vhsId);
+        if (lockedVhs.isEmpty()) {
+            return checkouts.stream()
+                    .map(_ -> CheckoutOutcome.rejected(new ResourceNotFoundException("VHS", "id", vhsId)))
+                    .toList();
+        }
+        VHS vhs = lockedVhs.get();
+        Instant now = Instant.now();
+        int available = vhs.getAvailableCount();
+        Map<String, Optional<User>> usersByEmail = new HashMap<>();
+        List<CheckoutOutcome> outcomes = new ArrayList<>(checkouts.size());
+        List<Rental> rentals = new ArrayList<>();
+
+        for (QueuedCheckout checkout : checkouts) {
+            Instant dueDate = parseDueDate(checkout.request().dueDate()).orElse(null);
+            Optional<User> user = usersByEmail.computeIfAbsent(checkout.userEmail(), userRepository::findByEmail);
+            if (dueDate == null) {
+                outcomes.add(CheckoutOutcome.rejected(new InvalidOperationException(
+                        "Invalid due date: " + checkout.request().dueDate()
+                )));
+            } else if (dueDate.isBefore(now)) {
+                outcomes.add(CheckoutOutcome.rejected(new InvalidOperationException("Due date must be in the future")));
+            } else if (user.isEmpty()) {
+                outcomes.add(CheckoutOutcome.rejected(new ResourceNotFoundException("User", "email", checkout.userEmail())));
+            } else if (available == 0) {
+                outcomes.add(CheckoutOutcome.rejected(new InvalidOperationException(
+                        "VHS with id: " + vhsId + " is not currently available for rental"
+                )));
+            } else {
+                available--;
+                Rental rental = Rental.builder()
+                        .vhs(vhs)
+                        .user(user.get())
+                        .rentalDate(now)
+                        .dueDate(dueDate)
+                        .dailyPriceCents(PricingEngine.toCents(vhs.getRentalPrice()))
+                        .build();
+                rentals.add(rental);
+                outcomes.add(null);
+            }
+        }
+
+        vhs.setAvailableCount(available);
+        rentalRepository.saveAll(rentals);
+        log.info("Queued checkouts processed vhsId={} requested={} granted={}", vhsId, checkouts.size(), rentals.size());
+
+        int next = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (outcomes.get(i) == null) {
+                outcomes.set(i, CheckoutOutcome.granted(rentalMapper.toDTO(rentals.get(next++))));
+            }
+        }
+        return outcomes;
+    }
+
+    @RetryableTransaction("rental-finish")
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public RentalDTO finishRental(UUID id, String userEmail) {
         log.info("Finish rental requested rentalId={} by userEmail={}", id, userEmail);
         Rental rental = rentalRepository.findById(id)
@@ -83,18 +227,171 @@ public class RentalService {
         }
 
         rental.setReturnDate(Instant.now());
-        rental.calculatePrice();
+        applyPrice(rental, completedRentals(rental.getUser().getId()));
         rentalRepository.save(rental);
+        vhsRepository.releaseCopy(rental.getVhs().getId());
         log.info("Rental finished rentalId={} userId={} price={}", rental.getId(), rental.getUser().getId(), rental.getPrice());
         return rentalMapper.toDTO(rental);
     }
 
+    @RetryableTransaction("rental-finish-batch")
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<RentalBatchItemResult> finishRentals(List<UUID> ids, String userEmail) {
+        log.info("Batch finish requested rentals={} by userEmail={}", ids.size(), userEmail);
+        return finishRentals(ids, rental -> rental.getUser().getEmail().equals(userEmail));
+    }
+
+    @RetryableTransaction("rental-finish-batch")
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<RentalBatchItemResult> finishRentalsAsAdmin(List<UUID> ids) {
+        log.info("Admin batch finish requested rentals={}", ids.size());
+        return finishRentals(ids, _ -> true);
+    }
+
+    /**
+     * Loads every rental with one query, prices them in a single pass and lets Hibernate flush the
+     * return dates and prices as one JDBC batch. Stock for all returned titles is released with one UPDATE.
+     */
+    private List<RentalBatchItemResult> finishRentals(List<UUID> ids, Predicate<Rental> mayFinish) {
+        Map<UUID, Rental> rentalsById = rentalRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Rental::getId, Function.identity()));
+
+        Instant now = Instant.now();
+        Map<UUID, Integer> completedRentalsByUser = new HashMap<>();
+        List<RentalBatchItemResult> results = new ArrayList<>(ids.size());
+        Set<UUID> finishedIds = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            Rental rental = rentalsById.get(id);
+            if (rental == null) {
+                results.add(RentalBatchItemResult.failure(i, id.toString(), "Rental not found with id: '" + id + "'"));
+            } else if (rental.getReturnDate() != null) {
+                results.add(RentalBatchItemResult.failure(i, id.toString(), "Rental has already been finished"));
+            } else if (!mayFinish.test(rental)) {
+                results.add(RentalBatchItemResult.failure(i, id.toString(), "You are not authorized to finish this rental"));
+            } else {
+                rental.setReturnDate(now);
+                applyPrice(rental, completedRentalsByUser.computeIfAbsent(rental.getUser().getId(), this::completedRentals));
+                finishedIds.add(id);
+                results.add(RentalBatchItemResult.success(i, id.toString(), rentalMapper.toDTO(rental)));
+            }
+        }
+
+        if (!finishedIds.isEmpty()) {
+            vhsRepository.releaseCopies(finishedIds);
+        }
+        log.info("Batch finish processed requested={} finished={}", ids.size(), finishedIds.size());
+        return results;
+    }
+
+    /**
+     * Prices a cart as if every item were returned on its due date. Prices come from the request,
+     * so quoting never touches the database; the binding price is still taken from the checkout snapshot.
+     */
+    public RentalQuoteDTO quote(List<RentalQuoteItem> items) {
+        Instant now = Instant.now();
+        long rentalEpochSecond = now.getEpochSecond();
+        List<RentalQuoteLineDTO> lines = new ArrayList<>(items.size());
+        long totalCents = 0;
+        for (RentalQuoteItem item : items) {
+            long dueEpochSecond = Instant.parse(item.dueDate()).getEpochSecond();
+            if (dueEpochSecond < rentalEpochSecond) {
+                throw new InvalidOperationException("Due date must be in the future");
+            }
+            long dailyPriceCents = PricingEngine.toCents(item.rentalPrice());
+            long priceCents = pricingEngine.priceCents(dailyPriceCents, rentalEpochSecond, dueEpochSecond, dueEpochSecond, 0);
+            totalCents += priceCents;
+            lines.add(new RentalQuoteLineDTO(
+                    item.vhsId(),
+                    PricingEngine.rentalDays(rentalEpochSecond, dueEpochSecond),
+                    priceCents,
+                    PricingEngine.toAmount(priceCents)
+            ));
+        }
+        return new RentalQuoteDTO(lines, totalCents, PricingEngine.toAmount(totalCents));
+    }
+
     @Transactional(readOnly = true)
     public Page<RentalDTO> getAllRentals(Pageable pageable) {
         Page<Rental> rentals = rentalRepository.findAll(pageable);
         return rentalMapper.toDTO(rentals);
     }
 
+    @Transactional(readOnly = true)
+    public CursorSlice<RentalDTO> getRentalsSlice(String cursor, int requestedSize) {
+        int size = Math.clamp(requestedSize, 1, MAX_SLICE_SIZE);
+        Limit limit = Limit.of(size + 1);
+        List<Rental> rentals;
+        if (cursor == null || cursor.isBlank()) {
+            rentals = rentalRepository.findLatest(limit);
+        } else {
+            String[] position = CursorCodec.decode(cursor, 2);
+            rentals = rentalRepository.findLatestBefore(parseInstant(position[0]), parseUuid(position[1])
+                    .orElseThrow(() -> new InvalidOperationException("Invalid cursor")), limit);
+        }
+
+        boolean hasNext = rentals.size() > size;
+        List<Rental> content = hasNext ? rentals.subList(0, size) : rentals;
+        String nextCursor = null;
+        if (hasNext) {
+            Rental last = content.getLast();
+            nextCursor = CursorCodec.encode(last.getRentalDate(), last.getId());
+        }
+        return new CursorSlice<>(content, nextCursor, hasNext).map(rentalMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<UserRentalDTO> getUserRentals(String userEmail, RentalStatusFilter status, Pageable pageable) {
+        UUID userId = userRepository.findIdByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        // Ordering is fixed per view so that each one stays on its index.
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Instant now = Instant.now();
+        if (status == null) {
+            return rentalRepository.findHistoryByUserId(userId, page);
+        }
+        return switch (status) {
+            case ACTIVE -> rentalRepository.findActiveByUserId(userId, now, page);
+            case OVERDUE -> rentalRepository.findOverdueByUserId(userId, now, page);
+            case RETURNED -> rentalRepository.findReturnedByUserId(userId, page);
+        };
+    }
+
+    @Transactional(readOnly = true)
+    public CursorSlice<OverdueRentalDTO> getOverdueRentals(String cursor, int requestedSize) {
+        int size = Math.clamp(requestedSize, 1, MAX_SLICE_SIZE);
+        Instant afterDueDate = OverdueRentalScanner.KEYSET_START_DUE_DATE;
+        UUID afterId = OverdueRentalScanner.KEYSET_START_ID;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = CursorCodec.decode(cursor, 2);
+            afterDueDate = parseInstant(position[0]);
+            afterId = parseUuid(position[1]).orElseThrow(() -> new InvalidOperationException("Invalid cursor"));
+        }
+
+        List<OverdueRentalDTO> rentals = rentalRepository.findOverdueAfter(Instant.now(), afterDueDate, afterId, Limit.of(size + 1));
+        boolean hasNext = rentals.size() > size;
+        List<OverdueRentalDTO> content = hasNext ? rentals.subList(0, size) : rentals;
+        String nextCursor = null;
+        if (hasNext) {
+            OverdueRentalDTO last = content.getLast();
+            nextCursor = CursorCodec.encode(last.dueDate(), last.id());
+        }
+        return new CursorSlice<>(content, nextCursor, hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public OverdueSummaryDTO getOverdueSummary() {
+        Instant now = Instant.now();
+        Instant lastScanCompletedAt = jobCheckpointRepository.findById(OverdueRentalScanner.JOB_NAME)
+                .map(JobCheckpoint::getLastCompletedAt)
+                .orElse(null);
+        return new OverdueSummaryDTO(
+                rentalRepository.countOverdue(now),
+                rentalRepository.sumAccruedLateFees(now),
+                lastScanCompletedAt
+        );
+    }
+
     @Transactional(readOnly = true)
     public RentalDTO getRentalById(UUID id) {
         Rental rental = rentalRepository.findById(id)
@@ -102,8 +399,50 @@ public class RentalService {
         return rentalMapper.toDTO(rental);
     }
 
-    private boolean isVHSAvailable(VHS vhs) {
-        return rentalRepository.countByVhs_IdAndReturnDateIsNull(vhs.getId()) < vhs.getStockLevel();
+    private void applyPrice(Rental rental, int completedRentals) {
+        if (rental.getReturnDate() == null) {
+            throw new NotReturned(NotReturned.DEFAULT_MESSAGE);
+        }
+        long priceCents = pricingEngine.priceCents(
+                rental.getDailyPriceCents(), rental.getRentalDate(), rental.getDueDate(), rental.getReturnDate(), completedRentals
+        );
+        rental.setPriceCents(priceCents);
+    }
+
+    private int completedRentals(UUID userId) {
+        if (!pricingEngine.usesRentalHistory()) {
+            return 0;
+        }
+        return (int) rentalRepository.countByUser_IdAndReturnDateIsNotNull(userId);
+    }
+
+    private static Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidOperationException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * For batched paths, where one unparsable date must fail only its own item.
+     */
+    private static Optional<Instant> parseDueDate(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Instant.parse(value));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
     }
 
+    private static Optional<UUID> parseUuid(String value) {
+        try {
+            return Optional.of(UUID.fromString(value));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
 }
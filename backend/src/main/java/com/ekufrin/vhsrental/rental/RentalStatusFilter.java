@@ -0,0 +1,19 @@
+package com.ekufrin.vhsrental.rental;
+
+import com.ekufrin.vhsrental.exception.InvalidOperationException;
+
+import java.util.Locale;
+
+public enum RentalStatusFilter {
+    ACTIVE,
+    OVERDUE,
+    RETURNED;
+
+    public static RentalStatusFilter from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOperationException("Invalid status: " + value + ". Allowed values are active, overdue and returned");
+        }
+    }
+}
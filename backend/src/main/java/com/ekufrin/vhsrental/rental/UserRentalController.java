@@ -0,0 +1,26 @@
+package com.ekufrin.vhsrental.rental;
+
+import com.ekufrin.vhsrental.config.ApiResponse;
+import com.ekufrin.vhsrental.config.ApiResponseFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/users/me/rentals")
+public class UserRentalController {
+    private final RentalService rentalService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Slice<UserRentalDTO>>> getMyRentals(@RequestParam(required = false) String status, Pageable pageable, @AuthenticationPrincipal UserDetails user) {
+        RentalStatusFilter filter = status != null ? RentalStatusFilter.from(status) : null;
+        Slice<UserRentalDTO> rentals = rentalService.getUserRentals(user.getUsername(), filter, pageable);
+        return ApiResponseFactory.success("Rentals retrieved successfully", rentals, HttpStatus.OK);
+    }
+}
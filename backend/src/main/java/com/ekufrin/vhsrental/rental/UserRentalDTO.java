@@ -0,0 +1,16 @@
+package com.ekufrin.vhsrental.rental;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record UserRentalDTO(
+        UUID id,
+        UUID vhsId,
+        String vhsTitle,
+        String genre,
+        Instant rentalDate,
+        Instant dueDate,
+        Instant returnDate,
+        Double price
+) {
+}
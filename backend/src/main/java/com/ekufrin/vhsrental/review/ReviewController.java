@@ -2,6 +2,8 @@ package com.ekufrin.vhsrental.review;
 
 import com.ekufrin.vhsrental.config.ApiResponse;
 import com.ekufrin.vhsrental.config.ApiResponseFactory;
+import com.ekufrin.vhsrental.config.CatalogVersions;
+import com.ekufrin.vhsrental.vhs.VHSRatingDTO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -11,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -19,6 +22,7 @@ import java.util.UUID;
 @RequestMapping("/reviews")
 public class ReviewController {
     private final ReviewService reviewService;
+    private final CatalogVersions catalogVersions;
 
     @PostMapping
     public ResponseEntity<ApiResponse<ReviewDTO>> createReview(@RequestBody @Valid ReviewCreateRequest request, @AuthenticationPrincipal UserDetails userDetails) {
@@ -27,9 +31,23 @@ public class ReviewController {
     }
 
     @GetMapping("/vhs/{vhsId}")
-    public ResponseEntity<ApiResponse<Page<ReviewDTO>>> getAllReviewsForVHS(@PathVariable UUID vhsId, Pageable pageable) {
+    public ResponseEntity<ApiResponse<Page<ReviewDTO>>> getAllReviewsForVHS(@PathVariable UUID vhsId, Pageable pageable, WebRequest webRequest) {
+        String etag = catalogVersions.reviewsETag(vhsId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         Page<ReviewDTO> reviews = reviewService.getAllReviewsForVHS(vhsId, pageable);
-        return ApiResponseFactory.success("Reviews retrieved successfully", reviews, HttpStatus.OK);
+        return ApiResponseFactory.success("Reviews retrieved successfully", reviews, HttpStatus.OK, etag);
+    }
+
+    @GetMapping("/vhs/{vhsId}/summary")
+    public ResponseEntity<ApiResponse<VHSRatingDTO>> getRatingSummary(@PathVariable UUID vhsId, WebRequest webRequest) {
+        String etag = catalogVersions.reviewsETag(vhsId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        VHSRatingDTO summary = reviewService.getRatingSummary(vhsId);
+        return ApiResponseFactory.success("Rating summary retrieved successfully", summary, HttpStatus.OK, etag);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,13 @@
+package com.ekufrin.vhsrental.review;
+
+import java.util.UUID;
+
+public record ReviewExportRow(
+        UUID id,
+        UUID rentalId,
+        UUID vhsId,
+        UUID userId,
+        Double rating,
+        String comment
+) {
+}
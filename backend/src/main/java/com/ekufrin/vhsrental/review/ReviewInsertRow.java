@@ -0,0 +1,22 @@
+package com.ekufrin.vhsrental.review;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outcome of {@link ReviewRepository#insertIfOwned}: whether the caller owns the rental, whether the review was
+ * inserted, and the title it belongs to.
+ */
+interface ReviewInsertRow {
+    boolean isOwned();
+
+    boolean isCreated();
+
+    UUID getVhsId();
+
+    String getVhsTitle();
+
+    String getGenreName();
+
+    Instant getReleaseDate();
+}
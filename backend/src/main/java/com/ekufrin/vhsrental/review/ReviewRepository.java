@@ -1,19 +1,22 @@
 package com.ekufrin.vhsrental.review;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
-    boolean existsReviewByRental_Id(UUID rentalId);
-
     @Query("""
             SELECT DISTINCT r FROM Review r
             INNER JOIN FETCH r.rental rental
@@ -33,6 +36,45 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
             WHERE r.id = :id
             """)
     Optional<Review> findByIdAndIncludeRental(@Param("id") UUID id);
-}
 
+    /**
+     * Inserts the review only if {@code email} owns the rental, and bumps the rating aggregates only if a row went in.
+     * The final SELECT reads {@code rated} so that CTE runs. Empty if the rental does not exist.
+     */
+    @Query(value = """
+            WITH target AS (
+                SELECT r.id AS rental_id, v.id AS vhs_id, v.title AS vhs_title, g.name AS genre_name,
+                       v.release_date, u.email = :email AS owned
+                FROM rentals r
+                INNER JOIN users u ON u.id = r.user_id
+                INNER JOIN vhs v ON v.id = r.vhs_id
+                INNER JOIN genres g ON g.id = v.genre_id
+                WHERE r.id = :rentalId
+            ), inserted AS (
+                INSERT INTO reviews (id, rental_id, rating, comment)
+                SELECT :id, t.rental_id, :rating, CAST(:comment AS VARCHAR) FROM target t WHERE t.owned
+                ON CONFLICT (rental_id) DO NOTHING
+                RETURNING id
+            ), rated AS (
+                SELECT vhs_apply_rating_delta(t.vhs_id, 1, :points, :star, 0) AS titles
+                FROM target t
+                WHERE EXISTS (SELECT 1 FROM inserted)
+            )
+            SELECT t.owned AS owned, EXISTS (SELECT 1 FROM inserted) AS created, t.vhs_id AS vhsId,
+                   t.vhs_title AS vhsTitle, t.genre_name AS genreName, t.release_date AS releaseDate,
+                   (SELECT COUNT(*) FROM rated) AS rated
+            FROM target t
+            """, nativeQuery = true)
+    Optional<ReviewInsertRow> insertIfOwned(@Param("id") UUID id, @Param("rentalId") UUID rentalId,
+                                            @Param("email") String email, @Param("rating") double rating,
+                                            @Param("points") BigDecimal points, @Param("comment") String comment, @Param("star") int star);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.ekufrin.vhsrental.review.ReviewExportRow(r.id, rental.id, rental.vhs.id, rental.user.id, r.rating, r.comment)
+            FROM Review r
+            INNER JOIN r.rental rental
+            ORDER BY r.id
+            """)
+    Stream<ReviewExportRow> streamAllForExport();
+}
@@ -1,9 +1,13 @@
 package com.ekufrin.vhsrental.review;
 
+import com.ekufrin.vhsrental.config.CacheInvalidationBus;
+import com.ekufrin.vhsrental.config.CatalogCacheEvictor;
+import com.ekufrin.vhsrental.config.CatalogChangeEvent;
+import com.ekufrin.vhsrental.config.RetryableTransaction;
 import com.ekufrin.vhsrental.exception.ForbiddenOperationException;
 import com.ekufrin.vhsrental.exception.ResourceNotFoundException;
-import com.ekufrin.vhsrental.rental.Rental;
-import com.ekufrin.vhsrental.rental.RentalRepository;
+import com.ekufrin.vhsrental.vhs.VHSRatingDTO;
+import com.ekufrin.vhsrental.vhs.VHSRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -20,30 +24,28 @@ import java.util.UUID;
 public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final ReviewMapper reviewMapper;
-    private final RentalRepository rentalRepository;
+    private final VHSRepository vhsRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final CatalogCacheEvictor catalogCacheEvictor;
 
     @Transactional
     public ReviewDTO createReview(ReviewCreateRequest request, String userEmail) {
-        if (reviewRepository.existsReviewByRental_Id(request.rentalId())) {
-            throw new ForbiddenOperationException("A review for this rental already exists.");
-        }
-
-        Rental rental = rentalRepository.findById(request.rentalId())
+        UUID id = UUID.randomUUID();
+        ReviewInsertRow row = reviewRepository.insertIfOwned(id, request.rentalId(), userEmail, request.rating(),
+                        VHSRatingDTO.points(request.rating()), request.comment(), VHSRatingDTO.star(request.rating()))
                 .orElseThrow(() -> new ResourceNotFoundException("Rental", "id", request.rentalId()));
 
-        if (!rental.getUser().getEmail().equals(userEmail)) {
+        if (!row.isOwned()) {
             throw new ForbiddenOperationException("You are not allowed to review this rental.");
         }
+        if (!row.isCreated()) {
+            throw new ForbiddenOperationException("A review for this rental already exists.");
+        }
 
-        Review review = Review.builder()
-                .rental(rental)
-                .rating(request.rating())
-                .comment(request.comment())
-                .build();
-
-        Review savedReview = reviewRepository.save(review);
-        log.info("Review created reviewId={} rentalId={} rating={}", savedReview.getId(), request.rentalId(), request.rating());
-        return reviewMapper.toDTO(savedReview);
+        publishRatingChange(row.getVhsId());
+        log.info("Review created reviewId={} rentalId={} rating={}", id, request.rentalId(), request.rating());
+        return new ReviewDTO(id, request.rating(), request.comment(), new UserSummaryDTO(userEmail),
+                new VHSSummaryDTO(row.getVhsId(), row.getVhsTitle(), row.getGenreName(), row.getReleaseDate()));
     }
 
     @Transactional(readOnly = true)
@@ -52,6 +54,12 @@ public class ReviewService {
         return reviewMapper.toDTO(reviews);
     }
 
+    @Transactional(readOnly = true)
+    public VHSRatingDTO getRatingSummary(UUID vhsId) {
+        return vhsRepository.findRatingById(vhsId)
+                .orElseThrow(() -> new ResourceNotFoundException("VHS", "id", vhsId));
+    }
+
     @Transactional(readOnly = true)
     public ReviewDTO getReviewById(UUID id) {
         Review review = reviewRepository.findByIdAndIncludeRental(id)
@@ -59,6 +67,7 @@ public class ReviewService {
         return reviewMapper.toDTO(review);
     }
 
+    @RetryableTransaction("review-update")
     @Transactional(isolation = Isolation.SERIALIZABLE)
     public void updateReview(UUID id, ReviewUpdateRequest request, String userEmail) {
         Review review = reviewRepository.findByIdAndIncludeRental(id)
@@ -68,10 +77,16 @@ public class ReviewService {
             throw new ForbiddenOperationException("You are not allowed to update this review.");
         }
 
+        double previousRating = review.getRating();
         review.setRating(request.rating());
         review.setComment(request.comment() != null ? request.comment() : review.getComment());
 
         reviewRepository.save(review);
+        UUID vhsId = review.getRental().getVhs().getId();
+        vhsRepository.applyRatingDelta(vhsId, 0,
+                VHSRatingDTO.points(request.rating()).subtract(VHSRatingDTO.points(previousRating)),
+                VHSRatingDTO.star(request.rating()), VHSRatingDTO.star(previousRating));
+        publishRatingChange(vhsId);
         log.info("Review updated reviewId={} updatedBy={} newRating={}", id, userEmail, request.rating());
     }
 
@@ -85,6 +100,21 @@ public class ReviewService {
         }
 
         reviewRepository.delete(review);
+        UUID vhsId = review.getRental().getVhs().getId();
+        vhsRepository.applyRatingDelta(vhsId, -1, VHSRatingDTO.points(review.getRating()).negate(), 0, VHSRatingDTO.star(review.getRating()));
+        publishRatingChange(vhsId);
         log.info("Review deleted reviewId={} deletedBy={}", id, userEmail);
     }
+
+    /**
+     * Reviews change the rating aggregates shown with the title, so its cached VHS entries go along with the
+     * review listing.
+     */
+    private void publishRatingChange(UUID vhsId) {
+        // After-commit callbacks run in registration order: the stale entries must be gone before the ETags move,
+        // or a request between the two could tag the old cached body with the new version.
+        catalogCacheEvictor.evictAfterCommit(new CatalogChangeEvent(CatalogChangeEvent.VHS, vhsId.toString()));
+        cacheInvalidationBus.publish(CatalogChangeEvent.REVIEW, vhsId);
+        cacheInvalidationBus.publish(CatalogChangeEvent.VHS, vhsId);
+    }
 }
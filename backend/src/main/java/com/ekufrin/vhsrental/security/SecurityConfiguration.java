@@ -41,8 +41,12 @@ public class SecurityConfiguration {
                         .requestMatchers("/genres/**").permitAll()
                         .requestMatchers("/users/me/**").authenticated()
                         .requestMatchers("/users/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/vhs/import").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/vhs/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/vhs/**").permitAll()
+                        .requestMatchers("/rentals/admin/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/rentals/overdue/**").hasRole("ADMIN")
+                        .requestMatchers("/exports/**").hasRole("ADMIN")
                         .requestMatchers("/rentals/**").authenticated()
                         .requestMatchers(HttpMethod.POST, "/reviews/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/reviews/**").authenticated()
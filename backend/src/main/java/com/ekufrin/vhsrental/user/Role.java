@@ -0,0 +1,6 @@
+package com.ekufrin.vhsrental.user;
+
+public enum Role {
+    USER,
+    ADMIN
+}
@@ -29,6 +29,10 @@ public class User {
     private String email;
     @Column(nullable = false)
     private String password;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Role role = Role.USER;
     @ManyToMany
     @JoinTable(
             name = "users_favorite_genres",
@@ -20,6 +20,9 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     boolean existsByEmail(String email);
 
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<UUID> findIdByEmail(@Param("email") String email);
+
     @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.favoriteGenres")
     Page<User> findAll(Pageable pageable);
 
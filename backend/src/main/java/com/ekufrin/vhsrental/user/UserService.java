@@ -1,5 +1,6 @@
 package com.ekufrin.vhsrental.user;
 
+import com.ekufrin.vhsrental.config.RetryableTransaction;
 import com.ekufrin.vhsrental.exception.ResourceNotFoundException;
 import com.ekufrin.vhsrental.genre.Genre;
 import com.ekufrin.vhsrental.genre.GenreRepository;
@@ -40,6 +41,7 @@ public class UserService {
         return userMapper.toDTO(user);
     }
 
+    @RetryableTransaction("user-favorite-genres")
     @Transactional(isolation = Isolation.SERIALIZABLE)
     public UserDTO addFavoriteGenres(UserFavoriteGenresRequest request, String userEmail) {
         List<UUID> requestGenreIds = request.favoriteGenres();
@@ -0,0 +1,13 @@
+package com.ekufrin.vhsrental.vhs;
+
+import java.util.UUID;
+
+interface CatalogChangeRow {
+    String getEntity();
+
+    UUID getId();
+
+    long getChangeXid();
+
+    boolean isDeleted();
+}
@@ -0,0 +1,9 @@
+package com.ekufrin.vhsrental.vhs;
+
+import java.util.UUID;
+
+public record CatalogTombstoneDTO(
+        String entity,
+        UUID id
+) {
+}
@@ -0,0 +1,112 @@
+package com.ekufrin.vhsrental.vhs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a catalog import one record at a time, as NDJSON lines or RFC 4180 CSV records. A record longer than
+ * {@code maxRecordLength} is rejected instead of buffered.
+ */
+final class ImportRecordReader {
+    private final BufferedReader reader;
+    private final int maxRecordLength;
+
+    ImportRecordReader(Reader reader, int maxRecordLength) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * The next line without its terminator, or {@code null} at the end of the stream.
+     */
+    String nextLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                append(line, c);
+            }
+            c = reader.read();
+        }
+        return line.toString();
+    }
+
+    /**
+     * The fields of the next CSV record, or {@code null} at the end of the stream.
+     */
+    List<String> nextCsvRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        while (true) {
+            if (c == -1) {
+                if (quoted) {
+                    throw new MalformedRecordException("Unterminated quoted field");
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++length > maxRecordLength) {
+                throw tooLong();
+            }
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private void append(StringBuilder line, int c) throws MalformedRecordException {
+        if (line.length() >= maxRecordLength) {
+            throw tooLong();
+        }
+        line.append((char) c);
+    }
+
+    private MalformedRecordException tooLong() {
+        return new MalformedRecordException("Record exceeds " + maxRecordLength + " characters");
+    }
+
+    /**
+     * The stream cannot be split into records past this point.
+     */
+    static final class MalformedRecordException extends IOException {
+        MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.UuidGenerator;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -35,11 +36,31 @@ public class VHS {
     private Double rentalPrice;
     @Column(nullable = false)
     private Integer stockLevel;
+    @Column(nullable = false)
+    private Integer availableCount;
     private UUID imageId;
     private String imageExtension;
+    private String imageHash;
+    // Set by VHSRepository.markImageVariantsReady once every ImageVariant of the cover is stored.
+    @Column(insertable = false, updatable = false)
+    private boolean imageVariantsReady;
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Status status;
-
-
+    // Rating aggregates, written only by the vhs_apply_rating_delta function behind VHSRepository.applyRatingDelta.
+    @Column(insertable = false, updatable = false)
+    private int ratingCount;
+    @Column(insertable = false, updatable = false)
+    @Builder.Default
+    private BigDecimal ratingSum = BigDecimal.ZERO;
+    @Column(name = "rating_1", insertable = false, updatable = false)
+    private int rating1;
+    @Column(name = "rating_2", insertable = false, updatable = false)
+    private int rating2;
+    @Column(name = "rating_3", insertable = false, updatable = false)
+    private int rating3;
+    @Column(name = "rating_4", insertable = false, updatable = false)
+    private int rating4;
+    @Column(name = "rating_5", insertable = false, updatable = false)
+    private int rating5;
 }
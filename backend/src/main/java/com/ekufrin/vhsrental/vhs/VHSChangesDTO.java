@@ -0,0 +1,17 @@
+package com.ekufrin.vhsrental.vhs;
+
+import com.ekufrin.vhsrental.genre.GenreDTO;
+
+import java.util.List;
+
+/**
+ * Catalog rows changed since the caller's token, plus the ids of deleted ones. Ask again while {@code hasMore}.
+ */
+public record VHSChangesDTO(
+        List<VHSDTO> vhs,
+        List<GenreDTO> genres,
+        List<CatalogTombstoneDTO> deleted,
+        String token,
+        boolean hasMore
+) {
+}
@@ -2,23 +2,38 @@ package com.ekufrin.vhsrental.vhs;
 
 import com.ekufrin.vhsrental.config.ApiResponse;
 import com.ekufrin.vhsrental.config.ApiResponseFactory;
+import com.ekufrin.vhsrental.config.CatalogVersions;
+import com.ekufrin.vhsrental.config.CursorSlice;
+import com.ekufrin.vhsrental.status.Status;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/vhs")
 @RequiredArgsConstructor
 public class VHSController {
+    static final String TEXT_CSV_VALUE = "text/csv";
     private final VHSService vhsService;
+    private final VHSImportService vhsImportService;
+    private final CatalogVersions catalogVersions;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<VHSDTO>> createVHS(@Valid @ModelAttribute VhsCreateRequest request, @RequestParam(value = "image", required = false) MultipartFile image) {
@@ -26,15 +41,75 @@ public class VHSController {
         return ApiResponseFactory.success("VHS created successfully", createdVHS, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<VHSImportResultDTO>> importCatalog(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        VHSImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? VHSImportService.Format.NDJSON
+                : VHSImportService.Format.CSV;
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        VHSImportResultDTO result;
+        try (Reader reader = new InputStreamReader(body, charset)) {
+            result = vhsImportService.importCatalog(reader, format);
+        }
+        return ApiResponseFactory.success("Catalog import finished", result, HttpStatus.OK);
+    }
+
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<VHSDTO>>> getAllVHS(Pageable pageable) {
+    public ResponseEntity<ApiResponse<Page<VHSDTO>>> getAllVHS(Pageable pageable, WebRequest webRequest) {
+        String etag = catalogVersions.catalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         Page<VHSDTO> vhsList = vhsService.getAllVHS(pageable);
-        return ApiResponseFactory.success("VHS list retrieved successfully", vhsList, HttpStatus.OK);
+        return ApiResponseFactory.success("VHS list retrieved successfully", vhsList, HttpStatus.OK, etag);
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<ApiResponse<VHSFilterResultDTO>> filterVHS(
+            @RequestParam(required = false) UUID genreId,
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer decade,
+            Pageable pageable) {
+        VHSFilterResultDTO result = vhsService.filterVHS(new VHSFilter(genreId, status, minPrice, maxPrice, decade), pageable);
+        return ApiResponseFactory.success("VHS list retrieved successfully", result, HttpStatus.OK);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<CursorSlice<VHSDTO>>> searchVHS(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorSlice<VHSDTO> results = vhsService.searchVHS(query, cursor, size);
+        return ApiResponseFactory.success("VHS search results retrieved successfully", results, HttpStatus.OK);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<VHSSuggestionDTO>>> suggestTitles(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<VHSSuggestionDTO> suggestions = vhsService.suggestTitles(prefix, limit);
+        return ApiResponseFactory.success("VHS suggestions retrieved successfully", suggestions, HttpStatus.OK);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<VHSChangesDTO>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int size) {
+        VHSChangesDTO changes = vhsService.getChanges(since, size);
+        return ApiResponseFactory.success("Catalog changes retrieved successfully", changes, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<VHSDTO>> getVHSById(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<VHSDTO>> getVHSById(@PathVariable UUID id, WebRequest webRequest) {
+        String etag = catalogVersions.vhsETag(id);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         VHSDTO vhs = vhsService.getVHSById(id);
-        return ApiResponseFactory.success("VHS retrieved successfully", vhs, HttpStatus.OK);
+        return ApiResponseFactory.success("VHS retrieved successfully", vhs, HttpStatus.OK, etag);
     }
 }
@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -22,5 +23,7 @@ public class VHSDTO {
     private Double rentalPrice;
     private Integer stockLevel;
     private String imageUrl;
+    private Map<String, String> imageVariants;
     private Status status;
+    private VHSRatingDTO rating;
 }
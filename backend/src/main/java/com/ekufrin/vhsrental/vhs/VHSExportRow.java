@@ -0,0 +1,18 @@
+package com.ekufrin.vhsrental.vhs;
+
+import com.ekufrin.vhsrental.status.Status;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record VHSExportRow(
+        UUID id,
+        String title,
+        Instant releaseDate,
+        String genre,
+        Double rentalPrice,
+        Integer stockLevel,
+        Integer availableCount,
+        Status status
+) {
+}
@@ -0,0 +1,126 @@
+package com.ekufrin.vhsrental.vhs;
+
+import com.ekufrin.vhsrental.config.CatalogChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Facet counts per filter, computed with one GROUPING SETS query and kept in a small LRU map.
+ * Any catalog write calls {@link #invalidate()}; a count computed while a write was in flight is not cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class VHSFacetCache {
+    private static final int MAX_ENTRIES = 256;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<VHSFilter, VHSFacetsDTO> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<VHSFilter, VHSFacetsDTO> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private long generation;
+
+    public VHSFacetsDTO facetsFor(VHSFilter filter) {
+        long observedGeneration;
+        synchronized (cache) {
+            VHSFacetsDTO cached = cache.get(filter);
+            if (cached != null) {
+                return cached;
+            }
+            observedGeneration = generation;
+        }
+        VHSFacetsDTO facets = countFacets(filter);
+        synchronized (cache) {
+            if (generation == observedGeneration) {
+                cache.put(filter, facets);
+            }
+        }
+        return facets;
+    }
+
+    public void invalidate() {
+        synchronized (cache) {
+            generation++;
+            cache.clear();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.concerns(CatalogChangeEvent.VHS) || event.concerns(CatalogChangeEvent.GENRE)) {
+            invalidate();
+        }
+    }
+
+    private VHSFacetsDTO countFacets(VHSFilter filter) {
+        StringBuilder where = new StringBuilder("TRUE");
+        List<Object> params = new ArrayList<>();
+        if (filter.genreId() != null) {
+            where.append(" AND v.genre_id = ?");
+            params.add(filter.genreId());
+        }
+        if (filter.status() != null) {
+            where.append(" AND v.status = ?");
+            params.add(filter.status().name());
+        }
+        if (filter.minPrice() != null) {
+            where.append(" AND v.rental_price >= ?");
+            params.add(filter.minPrice());
+        }
+        if (filter.maxPrice() != null) {
+            where.append(" AND v.rental_price <= ?");
+            params.add(filter.maxPrice());
+        }
+        if (filter.decade() != null) {
+            where.append(" AND v.release_date >= ? AND v.release_date < ?");
+            params.add(Timestamp.from(VHSFilter.decadeStart(filter.decade())));
+            params.add(Timestamp.from(VHSFilter.decadeStart(filter.decade() + 10)));
+        }
+
+        Map<String, Long> genres = new TreeMap<>();
+        Map<String, Long> statuses = new TreeMap<>();
+        Map<String, Long> priceRanges = new LinkedHashMap<>();
+        Map<Integer, Long> decades = new TreeMap<>();
+        jdbcTemplate.query("""
+                SELECT CASE WHEN GROUPING(genre) = 0 THEN 'genre'
+                            WHEN GROUPING(status) = 0 THEN 'status'
+                            WHEN GROUPING(price_range) = 0 THEN 'price_range'
+                            ELSE 'decade' END AS facet,
+                       genre, status, price_range, decade, COUNT(*) AS titles FROM (
+                    SELECT g.name AS genre,
+                           v.status AS status,
+                           CASE WHEN v.rental_price < 2 THEN '0-2'
+                                WHEN v.rental_price < 4 THEN '2-4'
+                                WHEN v.rental_price < 6 THEN '4-6'
+                                ELSE '6+' END AS price_range,
+                           CAST(EXTRACT(YEAR FROM v.release_date) AS INTEGER) / 10 * 10 AS decade
+                    FROM vhs v
+                    INNER JOIN genres g ON g.id = v.genre_id
+                    WHERE %s
+                ) f
+                GROUP BY GROUPING SETS ((genre), (status), (price_range), (decade))
+                ORDER BY price_range
+                """.formatted(where), rs -> {
+            long titles = rs.getLong("titles");
+            // GROUPING() names the set a row belongs to, so a NULL value inside a grouped column cannot be
+            // mistaken for the column being rolled up.
+            switch (rs.getString("facet")) {
+                case "genre" -> genres.put(rs.getString("genre"), titles);
+                case "status" -> statuses.put(rs.getString("status"), titles);
+                case "price_range" -> priceRanges.put(rs.getString("price_range"), titles);
+                default -> decades.put(rs.getInt("decade"), titles);
+            }
+        }, params.toArray());
+        return new VHSFacetsDTO(genres, statuses, priceRanges, decades);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ekufrin.vhsrental.vhs;
+
+import java.util.Map;
+
+public record VHSFacetsDTO(
+        Map<String, Long> genres,
+        Map<String, Long> statuses,
+        Map<String, Long> priceRanges,
+        Map<Integer, Long> decades
+) {
+}
@@ -0,0 +1,45 @@
+package com.ekufrin.vhsrental.vhs;
+
+import com.ekufrin.vhsrental.status.Status;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Catalog filter; every criterion is optional. Being a record it doubles as the facet cache key.
+ */
+public record VHSFilter(UUID genreId, Status status, Double minPrice, Double maxPrice, Integer decade) {
+
+    Specification<VHS> toSpecification() {
+        return (root, _, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (genreId != null) {
+                predicates.add(cb.equal(root.get("genre").get("id"), genreId));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("rentalPrice"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("rentalPrice"), maxPrice));
+            }
+            if (decade != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("releaseDate"), decadeStart(decade)));
+                predicates.add(cb.lessThan(root.get("releaseDate"), decadeStart(decade + 10)));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    static Instant decadeStart(int year) {
+        return LocalDate.of(year, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+}
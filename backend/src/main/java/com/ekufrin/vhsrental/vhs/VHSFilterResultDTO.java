@@ -0,0 +1,6 @@
+package com.ekufrin.vhsrental.vhs;
+
+import org.springframework.data.domain.Page;
+
+public record VHSFilterResultDTO(Page<VHSDTO> results, VHSFacetsDTO facets) {
+}
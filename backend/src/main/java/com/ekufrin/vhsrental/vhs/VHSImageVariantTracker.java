@@ -0,0 +1,49 @@
+package com.ekufrin.vhsrental.vhs;
+
+import com.ekufrin.vhsrental.config.CacheInvalidationBus;
+import com.ekufrin.vhsrental.config.CatalogCacheEvictor;
+import com.ekufrin.vhsrental.config.CatalogChangeEvent;
+import com.ekufrin.vhsrental.image.ImageVariantGenerator;
+import com.ekufrin.vhsrental.image.ImageVariantsStoredEvent;
+import com.ekufrin.vhsrental.image.StoredImage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Flags titles once all variants of their cover are stored, and hands pending covers back to the generator every
+ * {@code image.variants.retry-interval}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VHSImageVariantTracker {
+    private final VHSRepository vhsRepository;
+    private final ImageVariantGenerator imageVariantGenerator;
+    private final CatalogCacheEvictor catalogCacheEvictor;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @EventListener
+    @Transactional
+    public void onVariantsStored(ImageVariantsStoredEvent event) {
+        for (UUID id : vhsRepository.markImageVariantsReady(event.hash())) {
+            catalogCacheEvictor.evictAfterCommit(new CatalogChangeEvent(CatalogChangeEvent.VHS, id.toString()));
+            cacheInvalidationBus.publish(CatalogChangeEvent.VHS, id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${image.variants.retry-interval}", initialDelayString = "${image.variants.retry-interval}")
+    public void retryPending() {
+        List<StoredImage> pending = vhsRepository.findCoversWithPendingVariants();
+        if (!pending.isEmpty()) {
+            log.info("Retrying image variants covers={}", pending.size());
+            pending.forEach(imageVariantGenerator::generateAsync);
+        }
+    }
+}
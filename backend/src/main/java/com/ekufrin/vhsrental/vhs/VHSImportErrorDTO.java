@@ -0,0 +1,4 @@
+package com.ekufrin.vhsrental.vhs;
+
+public record VHSImportErrorDTO(long row, String message) {
+}
@@ -0,0 +1,12 @@
+package com.ekufrin.vhsrental.vhs;
+
+import java.util.List;
+
+public record VHSImportResultDTO(
+        long rowsRead,
+        long imported,
+        long failed,
+        List<VHSImportErrorDTO> errors,
+        boolean errorsTruncated
+) {
+}
@@ -0,0 +1,15 @@
+package com.ekufrin.vhsrental.vhs;
+
+/**
+ * One catalog entry of a bulk import, as read from a CSV record or an NDJSON line. Values are kept as supplied and
+ * validated by {@link VHSImportService}, so that a bad row is reported instead of failing the whole upload.
+ */
+public record VHSImportRow(
+        String title,
+        String releaseDate,
+        String genre,
+        String rentalPrice,
+        String stockLevel,
+        String status
+) {
+}
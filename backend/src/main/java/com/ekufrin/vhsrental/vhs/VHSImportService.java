@@ -0,0 +1,342 @@
+package com.ekufrin.vhsrental.vhs;
+
+import com.ekufrin.vhsrental.config.CacheInvalidationBus;
+import com.ekufrin.vhsrental.config.CatalogImportProperties;
+import com.ekufrin.vhsrental.exception.InvalidOperationException;
+import com.ekufrin.vhsrental.status.Status;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bulk-loads distributor catalogs into {@code vhs}, one {@code COPY} per batch of {@code catalog.import.batch-size}. A
+ * rejected batch is inserted row by row, so only the offending rows fail.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VHSImportService {
+    private static final String COLUMNS = "id, title, release_date, genre_id, rental_price, stock_level, available_count, status";
+    private static final String COPY_SQL = "COPY vhs (" + COLUMNS + ") FROM STDIN (FORMAT csv)";
+    private static final String INSERT_SQL = "INSERT INTO vhs (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final List<String> CSV_COLUMNS = List.of("title", "releasedate", "genre", "rentalprice", "stocklevel", "status");
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final BigDecimal MAX_RENTAL_PRICE = new BigDecimal("99999999.99");
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final CatalogImportProperties properties;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    public VHSImportResultDTO importCatalog(Reader source, Format format) {
+        Map<String, UUID> genres = loadGenres();
+        ImportRecordReader reader = new ImportRecordReader(source, properties.maxLineLength());
+        Progress progress = new Progress(properties.maxReportedErrors());
+        List<ValidRow> batch = new ArrayList<>(properties.batchSize());
+        log.info("Catalog import started format={} genres={}", format, genres.size());
+        try {
+            int[] columns = format == Format.CSV ? readHeader(reader) : null;
+            while (true) {
+                try {
+                    VHSImportRow raw;
+                    if (format == Format.CSV) {
+                        List<String> fields = nextCsvRecord(reader);
+                        if (fields == null) {
+                            break;
+                        }
+                        progress.rowsRead++;
+                        raw = toRow(fields, columns);
+                    } else {
+                        String line = nextJsonLine(reader);
+                        if (line == null) {
+                            break;
+                        }
+                        progress.rowsRead++;
+                        raw = parseJson(line);
+                    }
+                    batch.add(validate(progress.rowsRead, raw, genres));
+                } catch (RowException e) {
+                    progress.fail(progress.rowsRead, e.getMessage());
+                    continue;
+                } catch (ImportRecordReader.MalformedRecordException e) {
+                    progress.fail(++progress.rowsRead, e.getMessage() + "; import stopped");
+                    break;
+                }
+                if (batch.size() >= properties.batchSize()) {
+                    flush(batch, progress);
+                }
+            }
+            flush(batch, progress);
+        } catch (IOException e) {
+            throw new InvalidOperationException("Failed to read import: " + e.getMessage(), e);
+        } finally {
+            if (progress.imported > 0) {
+                cacheInvalidationBus.publishEverything();
+            }
+            log.info("Catalog import finished rowsRead={} imported={} failed={}", progress.rowsRead, progress.imported, progress.failed);
+        }
+        return progress.toResult();
+    }
+
+    private Map<String, UUID> loadGenres() {
+        Map<String, UUID> genres = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM genres", rs -> {
+            genres.put(normalizeGenre(rs.getString("name")), rs.getObject("id", UUID.class));
+        });
+        return genres;
+    }
+
+    /**
+     * Maps the required columns to their position in the header, so columns may come in any order and extra
+     * columns are ignored. Names are matched case-insensitively, with or without underscores.
+     */
+    private static int[] readHeader(ImportRecordReader reader) throws IOException {
+        List<String> header = reader.nextCsvRecord();
+        List<String> names = new ArrayList<>();
+        if (header != null) {
+            for (String name : header) {
+                names.add(name.replace("\uFEFF", "").replace("_", "").strip().toLowerCase(Locale.ROOT));
+            }
+        }
+        int[] columns = new int[CSV_COLUMNS.size()];
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                missing.add(CSV_COLUMNS.get(i));
+            }
+        }
+        if (header != null && !missing.isEmpty()) {
+            throw new InvalidOperationException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static List<String> nextCsvRecord(ImportRecordReader reader) throws IOException {
+        List<String> fields;
+        do {
+            fields = reader.nextCsvRecord();
+        } while (fields != null && fields.size() == 1 && fields.getFirst().isBlank());
+        return fields;
+    }
+
+    private static VHSImportRow toRow(List<String> fields, int[] columns) {
+        String[] values = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i] < fields.size() ? fields.get(columns[i]) : null;
+        }
+        return new VHSImportRow(values[0], values[1], values[2], values[3], values[4], values[5]);
+    }
+
+    private static String nextJsonLine(ImportRecordReader reader) throws IOException {
+        String line;
+        do {
+            line = reader.nextLine();
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    private VHSImportRow parseJson(String line) {
+        try {
+            return jsonMapper.readValue(line, VHSImportRow.class);
+        } catch (JacksonException e) {
+            throw new RowException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * The same rules as {@link VhsCreateRequest}. Dates may be given as instants or as plain dates, which are taken
+     * as midnight UTC.
+     */
+    private static ValidRow validate(long row, VHSImportRow raw, Map<String, UUID> genres) {
+        String title = raw.title() == null ? "" : raw.title().strip();
+        if (title.isEmpty()) {
+            throw new RowException("Title is required");
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new RowException("Title must be at most " + MAX_TITLE_LENGTH + " characters");
+        }
+        UUID genreId = raw.genre() == null ? null : genres.get(normalizeGenre(raw.genre()));
+        if (genreId == null) {
+            throw new RowException("Unknown genre: " + raw.genre());
+        }
+        return new ValidRow(row, title, parseReleaseDate(raw.releaseDate()), genreId,
+                parseRentalPrice(raw.rentalPrice()), parseStockLevel(raw.stockLevel()), parseStatus(raw.status()));
+    }
+
+    private static Instant parseReleaseDate(String value) {
+        String date = required(value, "Release date");
+        try {
+            return Instant.parse(date);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDate.parse(date).atStartOfDay(ZoneOffset.UTC).toInstant();
+            } catch (DateTimeParseException ignored) {
+                throw new RowException("Invalid release date format: " + value);
+            }
+        }
+    }
+
+    private static BigDecimal parseRentalPrice(String value) {
+        BigDecimal price;
+        try {
+            price = new BigDecimal(required(value, "Rental price")).setScale(2, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            throw new RowException("Invalid rental price: " + value);
+        }
+        if (price.signum() <= 0 || price.compareTo(MAX_RENTAL_PRICE) > 0) {
+            throw new RowException("Rental price must be positive and at most " + MAX_RENTAL_PRICE);
+        }
+        return price;
+    }
+
+    private static int parseStockLevel(String value) {
+        int stockLevel;
+        try {
+            stockLevel = Integer.parseInt(required(value, "Stock level"));
+        } catch (NumberFormatException e) {
+            throw new RowException("Invalid stock level: " + value);
+        }
+        if (stockLevel <= 0) {
+            throw new RowException("Stock level must be positive");
+        }
+        return stockLevel;
+    }
+
+    private static Status parseStatus(String value) {
+        try {
+            return Status.valueOf(required(value, "Status").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RowException("Status must be one of " + Arrays.toString(Status.values()));
+        }
+    }
+
+    private static String required(String value, String name) {
+        if (value == null || value.isBlank()) {
+            throw new RowException(name + " is required");
+        }
+        return value.strip();
+    }
+
+    private static String normalizeGenre(String name) {
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private void flush(List<ValidRow> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            progress.imported += copy(batch);
+        } catch (DataAccessException e) {
+            log.warn("Catalog import batch rejected, retrying row by row rows={} cause={}", batch.size(), e.getMostSpecificCause().getMessage());
+            for (ValidRow row : batch) {
+                try {
+                    insert(row);
+                    progress.imported++;
+                } catch (DataAccessException rowError) {
+                    progress.fail(row.row(), rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        batch.clear();
+        log.info("Catalog import progress rowsRead={} imported={} failed={}", progress.rowsRead, progress.imported, progress.failed);
+    }
+
+    private long copy(List<ValidRow> batch) {
+        StringBuilder data = new StringBuilder(batch.size() * 128);
+        for (ValidRow row : batch) {
+            data.append(UUID.randomUUID()).append(',')
+                    .append('"').append(row.title().replace("\"", "\"\"")).append('"').append(',')
+                    .append(toLocalDateTime(row.releaseDate())).append(',')
+                    .append(row.genreId()).append(',')
+                    .append(row.rentalPrice().toPlainString()).append(',')
+                    .append(row.stockLevel()).append(',')
+                    .append(row.stockLevel()).append(',')
+                    .append(row.status().name()).append('\n');
+        }
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(data.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY into vhs failed", e);
+            }
+        });
+        return copied == null ? 0 : copied;
+    }
+
+    private void insert(ValidRow row) {
+        jdbcTemplate.update(INSERT_SQL, UUID.randomUUID(), row.title(), Timestamp.from(row.releaseDate()), row.genreId(),
+                row.rentalPrice(), row.stockLevel(), row.stockLevel(), row.status().name());
+    }
+
+    /**
+     * {@code release_date} has no time zone, and JPA writes instants to it in the JVM's zone; COPY has to match.
+     */
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private record ValidRow(long row, String title, Instant releaseDate, UUID genreId, BigDecimal rentalPrice,
+                            int stockLevel, Status status) {
+    }
+
+    private static final class RowException extends RuntimeException {
+        RowException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class Progress {
+        private final int maxReportedErrors;
+        private final List<VHSImportErrorDTO> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long failed;
+
+        private Progress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new VHSImportErrorDTO(row, message));
+            }
+        }
+
+        private VHSImportResultDTO toResult() {
+            return new VHSImportResultDTO(rowsRead, imported, failed, List.copyOf(errors), failed > errors.size());
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.ekufrin.vhsrental.vhs;
 
+import com.ekufrin.vhsrental.image.ImageVariant;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingTarget;
 import org.springframework.data.domain.Page;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Mapper(componentModel = "spring")
 public interface VHSMapper {
     VHSDTO toDTO(VHS vhs);
@@ -15,8 +19,41 @@ public interface VHSMapper {
 
     @AfterMapping
     default void setImageUrl(@MappingTarget VHSDTO dto, VHS vhs) {
-        if (vhs.getImageId() != null && vhs.getImageExtension() != null) {
-            dto.setImageUrl("/uploads/" + vhs.getImageId() + vhs.getImageExtension());
+        dto.setImageUrl(imageUrl(vhs));
+        dto.setImageVariants(imageVariantUrls(vhs));
+        dto.setRating(VHSRatingDTO.of(vhs));
+    }
+
+    /**
+     * Content-addressed images are named by their hash; covers uploaded before that keep their random id.
+     */
+    static String imageUrl(VHS vhs) {
+        if (vhs.getImageExtension() == null) {
+            return null;
+        }
+        if (vhs.getImageHash() != null) {
+            return "/uploads/" + vhs.getImageHash() + vhs.getImageExtension();
+        }
+        if (vhs.getImageId() != null) {
+            return "/uploads/" + vhs.getImageId() + vhs.getImageExtension();
+        }
+        return null;
+    }
+
+    /**
+     * Downscaled renditions by variant key, only for content-addressed covers. Until the variants are stored every
+     * key points at the original, so a client never follows a URL that is not there yet.
+     */
+    static Map<String, String> imageVariantUrls(VHS vhs) {
+        if (vhs.getImageHash() == null || vhs.getImageExtension() == null) {
+            return null;
+        }
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            urls.put(variant.key(), vhs.isImageVariantsReady()
+                    ? "/uploads/" + variant.fileName(vhs.getImageHash(), vhs.getImageExtension())
+                    : imageUrl(vhs));
         }
+        return urls;
     }
 }
@@ -0,0 +1,45 @@
+package com.ekufrin.vhsrental.vhs;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Review aggregates of a title: {@code histogram} maps whole stars, 1 to 5, to the number of ratings that round to
+ * them, and {@code average} is {@code null} until the first review.
+ */
+public record VHSRatingDTO(int count, BigDecimal sum, Double average, Map<Integer, Integer> histogram) {
+
+    public VHSRatingDTO(int count, BigDecimal sum, int rating1, int rating2, int rating3, int rating4, int rating5) {
+        this(count, sum, count == 0 ? null : sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP).doubleValue(),
+                histogram(rating1, rating2, rating3, rating4, rating5));
+    }
+
+    public static VHSRatingDTO of(VHS vhs) {
+        return new VHSRatingDTO(vhs.getRatingCount(), vhs.getRatingSum(),
+                vhs.getRating1(), vhs.getRating2(), vhs.getRating3(), vhs.getRating4(), vhs.getRating5());
+    }
+
+    /**
+     * The histogram bucket of a rating, i.e. the rating rounded half up to whole stars.
+     */
+    public static int star(double rating) {
+        return (int) Math.min(5, Math.max(1, Math.round(rating)));
+    }
+
+    /**
+     * What a rating adds to {@code sum}: the rating rounded half up to two decimals, matching the rating_sum column.
+     */
+    public static BigDecimal points(double rating) {
+        return BigDecimal.valueOf(rating).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Map<Integer, Integer> histogram(int... counts) {
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            histogram.put(i + 1, counts[i]);
+        }
+        return histogram;
+    }
+}
@@ -1,20 +1,154 @@
 package com.ekufrin.vhsrental.vhs;
 
+import com.ekufrin.vhsrental.image.StoredImage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface VHSRepository extends JpaRepository<VHS, UUID> {
+public interface VHSRepository extends JpaRepository<VHS, UUID>, JpaSpecificationExecutor<VHS> {
 
     @Query("SELECT DISTINCT v FROM VHS v INNER JOIN FETCH v.genre WHERE v.id = :id")
     Optional<VHS> findById(UUID id);
 
     @Query("SELECT v FROM VHS v INNER JOIN FETCH v.genre")
     Page<VHS> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "genre")
+    Page<VHS> findAll(Specification<VHS> specification, Pageable pageable);
+
+    @Query("SELECT v FROM VHS v INNER JOIN FETCH v.genre WHERE v.id IN :ids")
+    List<VHS> findAllByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Titles matching {@code query} as words or by trigram similarity, best match first.
+     * Word matches weigh double so that exact terms outrank near-misses.
+     */
+    @Query(value = """
+            SELECT s.id AS id, s.score AS score FROM (
+                SELECT v.id, CAST(ts_rank(v.search_vector, q) * 2 + similarity(lower(v.title), lower(:query)) AS DOUBLE PRECISION) AS score
+                FROM vhs v, plainto_tsquery('simple', :query) q
+                WHERE v.search_vector @@ q OR lower(v.title) % lower(:query)
+            ) s
+            ORDER BY s.score DESC, s.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<VHSSearchHit> search(@Param("query") String query, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT s.id AS id, s.score AS score FROM (
+                SELECT v.id, CAST(ts_rank(v.search_vector, q) * 2 + similarity(lower(v.title), lower(:query)) AS DOUBLE PRECISION) AS score
+                FROM vhs v, plainto_tsquery('simple', :query) q
+                WHERE v.search_vector @@ q OR lower(v.title) % lower(:query)
+            ) s
+            WHERE (s.score, s.id) < (:score, :id)
+            ORDER BY s.score DESC, s.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<VHSSearchHit> searchAfter(@Param("query") String query, @Param("score") double score, @Param("id") UUID id, @Param("limit") int limit);
+
+    /**
+     * Catalog rows and tombstones written after {@code (afterXid, afterId)}, in write order. Writes of transactions
+     * that may still be running are held back until they are older than every open transaction.
+     */
+    @Query(value = """
+            SELECT c.entity AS entity, c.id AS id, c.change_xid AS changeXid, c.deleted AS deleted FROM (
+                SELECT 'vhs' AS entity, v.id, v.change_xid, FALSE AS deleted FROM vhs v
+                UNION ALL
+                SELECT 'genre', g.id, g.change_xid, FALSE FROM genres g
+                UNION ALL
+                SELECT t.entity, t.id, t.change_xid, TRUE FROM catalog_tombstones t
+            ) c
+            WHERE (c.change_xid, c.id) > (:afterXid, :afterId)
+              AND c.change_xid < CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT)
+            ORDER BY c.change_xid, c.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<CatalogChangeRow> findChangesAfter(@Param("afterXid") long afterXid, @Param("afterId") UUID afterId, @Param("limit") int limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM VHS v INNER JOIN FETCH v.genre WHERE v.id = :id")
+    Optional<VHS> findByIdForUpdate(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM VHS v INNER JOIN FETCH v.genre WHERE v.id IN :ids ORDER BY v.id")
+    List<VHS> findAllByIdInForUpdate(@Param("ids") Collection<UUID> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE VHS v SET v.availableCount = v.availableCount - 1 WHERE v.id = :id AND v.availableCount > 0")
+    int reserveCopy(@Param("id") UUID id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE VHS v SET v.availableCount = v.availableCount + 1 WHERE v.id = :id AND v.availableCount < v.stockLevel")
+    int releaseCopy(@Param("id") UUID id);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE vhs v
+            SET available_count = LEAST(v.stock_level, v.available_count + returned.copies)
+            FROM (SELECT vhs_id, COUNT(*) AS copies FROM rentals WHERE id IN (:rentalIds) GROUP BY vhs_id) returned
+            WHERE v.id = returned.vhs_id
+            """, nativeQuery = true)
+    int releaseCopies(@Param("rentalIds") Collection<UUID> rentalIds);
+
+    /**
+     * Moves one rating into and/or out of the aggregates through {@code vhs_apply_rating_delta}. A star of 0 means
+     * none.
+     */
+    @Query(value = "SELECT vhs_apply_rating_delta(:id, :countDelta, :sumDelta, :addedStar, :removedStar)", nativeQuery = true)
+    int applyRatingDelta(@Param("id") UUID id, @Param("countDelta") int countDelta, @Param("sumDelta") BigDecimal sumDelta,
+                         @Param("addedStar") int addedStar, @Param("removedStar") int removedStar);
+
+    @Query("""
+            SELECT new com.ekufrin.vhsrental.vhs.VHSRatingDTO(v.ratingCount, v.ratingSum, v.rating1, v.rating2, v.rating3, v.rating4, v.rating5)
+            FROM VHS v
+            WHERE v.id = :id
+            """)
+    Optional<VHSRatingDTO> findRatingById(@Param("id") UUID id);
+
+    /**
+     * Flags every title with this cover as having its variants stored and returns the ones that were not flagged yet.
+     */
+    @Query(value = """
+            UPDATE vhs SET image_variants_ready = TRUE
+            WHERE image_hash = :hash AND NOT image_variants_ready
+            RETURNING id
+            """, nativeQuery = true)
+    List<UUID> markImageVariantsReady(@Param("hash") String hash);
+
+    @Query("""
+            SELECT DISTINCT new com.ekufrin.vhsrental.image.StoredImage(v.imageHash, v.imageExtension)
+            FROM VHS v
+            WHERE v.imageHash IS NOT NULL AND v.imageExtension IS NOT NULL AND v.imageVariantsReady = false
+            """)
+    List<StoredImage> findCoversWithPendingVariants();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.ekufrin.vhsrental.vhs.VHSExportRow(
+                v.id, v.title, v.releaseDate, g.name, v.rentalPrice, v.stockLevel, v.availableCount, v.status)
+            FROM VHS v
+            INNER JOIN v.genre g
+            ORDER BY v.id
+            """)
+    Stream<VHSExportRow> streamAllForExport();
 }
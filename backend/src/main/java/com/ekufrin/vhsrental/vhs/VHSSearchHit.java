@@ -0,0 +1,9 @@
+package com.ekufrin.vhsrental.vhs;
+
+import java.util.UUID;
+
+interface VHSSearchHit {
+    UUID getId();
+
+    double getScore();
+}
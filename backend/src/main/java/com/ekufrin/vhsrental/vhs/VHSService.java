@@ -1,40 +1,75 @@
 package com.ekufrin.vhsrental.vhs;
 
+import com.ekufrin.vhsrental.config.CacheConfiguration;
+import com.ekufrin.vhsrental.config.CacheInvalidationBus;
+import com.ekufrin.vhsrental.config.CatalogCacheEvictor;
+import com.ekufrin.vhsrental.config.CatalogChangeEvent;
+import com.ekufrin.vhsrental.config.CursorCodec;
+import com.ekufrin.vhsrental.config.CursorSlice;
 import com.ekufrin.vhsrental.exception.InvalidOperationException;
 import com.ekufrin.vhsrental.exception.ResourceNotFoundException;
 import com.ekufrin.vhsrental.genre.Genre;
+import com.ekufrin.vhsrental.genre.GenreDTO;
+import com.ekufrin.vhsrental.genre.GenreMapper;
 import com.ekufrin.vhsrental.genre.GenreRepository;
+import com.ekufrin.vhsrental.image.ImageStorage;
+import com.ekufrin.vhsrental.image.ImageVariantGenerator;
+import com.ekufrin.vhsrental.image.StoredImage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class VHSService {
-    private static final long MAX_FILE_SIZE = 10_000_000; // 10MB
-    private static final List<String> ALLOWED_MIME_TYPES = List.of("image/jpeg", "image/png");
+    private static final int MAX_SEARCH_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 100;
+    private static final int MAX_CHANGES_SIZE = 1000;
+    private static final UUID CHANGES_START_ID = new UUID(0L, 0L);
     private final VHSRepository vhsRepository;
     private final GenreRepository genreRepository;
     private final VHSMapper vhsMapper;
-    private final Path uploadPath = Paths.get("src/main/resources/static/uploads");
-
+    private final GenreMapper genreMapper;
+    private final VHSSuggestIndex vhsSuggestIndex;
+    private final VHSFacetCache vhsFacetCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final CatalogCacheEvictor catalogCacheEvictor;
+    private final ImageStorage imageStorage;
+    private final ImageVariantGenerator imageVariantGenerator;
+
+    @Cacheable(cacheNames = CacheConfiguration.VHS_PAGES, key = "#pageable")
     @Transactional(readOnly = true)
     public Page<VHSDTO> getAllVHS(Pageable pageable) {
         return vhsMapper.toDTO(vhsRepository.findAll(pageable));
     }
 
+    @Transactional(readOnly = true)
+    public VHSFilterResultDTO filterVHS(VHSFilter filter, Pageable pageable) {
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice() > filter.maxPrice()) {
+            throw new InvalidOperationException("minPrice cannot be greater than maxPrice");
+        }
+        if (filter.decade() != null && filter.decade() % 10 != 0) {
+            throw new InvalidOperationException("decade must be a multiple of 10 (e.g., 1980)");
+        }
+        Page<VHSDTO> results = vhsMapper.toDTO(vhsRepository.findAll(filter.toSpecification(), pageable));
+        return new VHSFilterResultDTO(results, vhsFacetCache.facetsFor(filter));
+    }
+
+    @Cacheable(cacheNames = CacheConfiguration.VHS_BY_ID, key = "#id")
     @Transactional(readOnly = true)
     public VHSDTO getVHSById(UUID id) {
         VHS vhs = vhsRepository.findById(id)
@@ -42,16 +77,108 @@ public class VHSService {
         return vhsMapper.toDTO(vhs);
     }
 
+    @Transactional(readOnly = true)
+    public CursorSlice<VHSDTO> searchVHS(String query, String cursor, int requestedSize) {
+        String normalizedQuery = query == null ? "" : query.strip();
+        if (normalizedQuery.isEmpty() || normalizedQuery.length() > MAX_QUERY_LENGTH) {
+            throw new InvalidOperationException("Search query must be between 1 and " + MAX_QUERY_LENGTH + " characters");
+        }
+        int size = Math.clamp(requestedSize, 1, MAX_SEARCH_SIZE);
+        List<VHSSearchHit> hits;
+        if (cursor == null || cursor.isBlank()) {
+            hits = vhsRepository.search(normalizedQuery, size + 1);
+        } else {
+            String[] position = CursorCodec.decode(cursor, 2);
+            try {
+                hits = vhsRepository.searchAfter(normalizedQuery, Double.parseDouble(position[0]), UUID.fromString(position[1]), size + 1);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidOperationException("Invalid cursor", e);
+            }
+        }
+
+        boolean hasNext = hits.size() > size;
+        List<VHSSearchHit> page = hasNext ? hits.subList(0, size) : hits;
+        Map<UUID, VHS> vhsById = page.isEmpty() ? Map.of() : vhsRepository.findAllByIdIn(page.stream().map(VHSSearchHit::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(VHS::getId, Function.identity()));
+        List<VHSDTO> content = page.stream()
+                .map(hit -> vhsById.get(hit.getId()))
+                .filter(Objects::nonNull)
+                .map(vhsMapper::toDTO)
+                .toList();
+        String nextCursor = null;
+        if (hasNext) {
+            VHSSearchHit last = page.getLast();
+            nextCursor = CursorCodec.encode(last.getScore(), last.getId());
+        }
+        return new CursorSlice<>(content, nextCursor, hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public VHSChangesDTO getChanges(String since, int requestedSize) {
+        int size = Math.clamp(requestedSize, 1, MAX_CHANGES_SIZE);
+        long afterXid = 0;
+        UUID afterId = CHANGES_START_ID;
+        if (since != null && !since.isBlank()) {
+            String[] position = CursorCodec.decode(since, 2);
+            try {
+                afterXid = Long.parseLong(position[0]);
+                afterId = UUID.fromString(position[1]);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidOperationException("Invalid sync token", e);
+            }
+        }
+
+        List<CatalogChangeRow> changes = vhsRepository.findChangesAfter(afterXid, afterId, size + 1);
+        boolean hasMore = changes.size() > size;
+        List<CatalogChangeRow> page = hasMore ? changes.subList(0, size) : changes;
+        List<UUID> vhsIds = new ArrayList<>();
+        List<UUID> genreIds = new ArrayList<>();
+        List<CatalogTombstoneDTO> deleted = new ArrayList<>();
+        for (CatalogChangeRow change : page) {
+            if (change.isDeleted()) {
+                deleted.add(new CatalogTombstoneDTO(change.getEntity(), change.getId()));
+            } else if (CatalogChangeEvent.VHS.equals(change.getEntity())) {
+                vhsIds.add(change.getId());
+            } else {
+                genreIds.add(change.getId());
+            }
+        }
+        // The IN lookups come back in any order; clients apply changes in write order, so restore it.
+        Map<UUID, VHS> vhsById = vhsIds.isEmpty() ? Map.of() : vhsRepository.findAllByIdIn(vhsIds)
+                .stream()
+                .collect(Collectors.toMap(VHS::getId, Function.identity()));
+        Map<UUID, Genre> genresById = genreIds.isEmpty() ? Map.of() : genreRepository.findAllByIdIn(genreIds)
+                .stream()
+                .collect(Collectors.toMap(Genre::getId, Function.identity()));
+        List<VHSDTO> vhs = vhsIds.stream()
+                .map(vhsById::get)
+                .filter(Objects::nonNull)
+                .map(vhsMapper::toDTO)
+                .toList();
+        List<GenreDTO> genres = genreIds.stream()
+                .map(genresById::get)
+                .filter(Objects::nonNull)
+                .map(genreMapper::toDTO)
+                .toList();
+        // With nothing new the caller's position still stands, so the same token is handed back.
+        String token = page.isEmpty()
+                ? CursorCodec.encode(afterXid, afterId)
+                : CursorCodec.encode(page.getLast().getChangeXid(), page.getLast().getId());
+        return new VHSChangesDTO(vhs, genres, deleted, token, hasMore);
+    }
+
+    public List<VHSSuggestionDTO> suggestTitles(String prefix, int limit) {
+        return vhsSuggestIndex.suggest(prefix, limit);
+    }
+
+    // Not cached with a cover: the variants may be stored, and the title updated, before this result is put.
+    @CachePut(cacheNames = CacheConfiguration.VHS_BY_ID, key = "#result.id", unless = "#image != null && !#image.isEmpty()")
     public VHSDTO createVHS(VhsCreateRequest request, MultipartFile image) {
         Genre genre = genreRepository.findById(UUID.fromString(request.genreId()))
                 .orElseThrow(() -> new ResourceNotFoundException("Genre", "id", request.genreId()));
 
-        UUID imageId = null;
-        String imageExtension = null;
-        if (image != null && !image.isEmpty()) {
-            imageId = UUID.randomUUID();
-            imageExtension = saveImage(image, imageId);
-        }
+        StoredImage storedImage = image != null && !image.isEmpty() ? imageStorage.store(image) : null;
 
         VHS vhs = VHS.builder()
                 .title(request.title())
@@ -59,54 +186,21 @@ public class VHSService {
                 .genre(genre)
                 .rentalPrice(request.rentalPrice())
                 .stockLevel(request.stockLevel())
-                .imageId(imageId)
-                .imageExtension(imageExtension)
+                .availableCount(request.stockLevel())
+                .imageHash(storedImage != null ? storedImage.hash() : null)
+                .imageExtension(storedImage != null ? storedImage.extension() : null)
                 .status(request.status())
                 .build();
 
         VHS savedVHS = vhsRepository.save(vhs);
-        return vhsMapper.toDTO(savedVHS);
-    }
-
-    private String saveImage(MultipartFile image, UUID imageId) {
-        try {
-            if (image.getSize() > MAX_FILE_SIZE) {
-                throw new InvalidOperationException(
-                        "File too large. Maximum size is 10MB"
-                );
-            }
-
-            String contentType = image.getContentType();
-            if (contentType == null || !ALLOWED_MIME_TYPES.contains(contentType)) {
-                throw new InvalidOperationException(
-                        "Invalid file type. Only JPEG and PNG are allowed"
-                );
-            }
-
-            String originalFilename = image.getOriginalFilename();
-            if (originalFilename == null ||
-                    !originalFilename.matches(".*\\.(jpg|jpeg|png)$")) {
-                throw new InvalidOperationException(
-                        "Invalid file extension. Only .jpg, .jpeg, and .png are allowed"
-                );
-            }
-
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            String extension = contentType.equals("image/jpeg") ? ".jpg" : ".png";
-            String filename = imageId + extension;
-            Path filePath = uploadPath.resolve(filename);
-
-            Files.copy(image.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            return extension;
-        } catch (IOException e) {
-            throw new InvalidOperationException(
-                    "Failed to save image: " + e.getMessage(), e
-            );
+        if (storedImage != null) {
+            imageVariantGenerator.generateAsync(storedImage);
         }
+        vhsSuggestIndex.add(savedVHS.getId(), savedVHS.getTitle());
+        vhsFacetCache.invalidate();
+        // The cached pages must be gone before the ETags move, or a read in between tags a stale page as current.
+        catalogCacheEvictor.evictAfterCommit(new CatalogChangeEvent(CatalogChangeEvent.VHS, savedVHS.getId().toString()));
+        cacheInvalidationBus.publish(CatalogChangeEvent.VHS, savedVHS.getId());
+        return vhsMapper.toDTO(savedVHS);
     }
-
 }
@@ -0,0 +1,377 @@
+package com.ekufrin.vhsrental.vhs;
+
+import com.ekufrin.vhsrental.config.CatalogChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-process prefix index over normalized titles for autocomplete, best ranked by rentals. Readers use an immutable
+ * snapshot; titles added between rebuilds go to a small overlay.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VHSSuggestIndex {
+    static final int MAX_SUGGESTIONS = 20;
+    static final int MERGE_THRESHOLD = 1024;
+    private static final int MEMOIZE_RANGE_THRESHOLD = 2048;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private final JdbcTemplate jdbcTemplate;
+    private final List<Entry> addedDuringRebuild = new ArrayList<>();
+    private volatile Index index = Index.EMPTY;
+    private boolean rebuilding;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread.ofVirtual().name("vhs-suggest-index").start(this::rebuild);
+    }
+
+    @Scheduled(fixedDelayString = "${vhs.suggest.rebuild-interval}", initialDelayString = "${vhs.suggest.rebuild-interval}")
+    public void rebuild() {
+        synchronized (this) {
+            rebuilding = true;
+            addedDuringRebuild.clear();
+        }
+        List<Entry> entries = new ArrayList<>();
+        try {
+            jdbcTemplate.query("""
+                    SELECT v.id, v.title, COALESCE(p.rentals, 0) AS rentals
+                    FROM vhs v
+                    LEFT JOIN (SELECT vhs_id, COUNT(*) AS rentals FROM rentals GROUP BY vhs_id) p ON p.vhs_id = v.id
+                    """, rs -> {
+                entries.add(Entry.of(rs.getObject("id", UUID.class), rs.getString("title"), rs.getInt("rentals")));
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                rebuilding = false;
+            }
+            log.error("VHS suggest index rebuild failed", e);
+            return;
+        }
+        synchronized (this) {
+            Index rebuilt = new Index(Snapshot.of(entries), Snapshot.EMPTY);
+            for (Entry entry : addedDuringRebuild) {
+                if (!rebuilt.contains(entry)) {
+                    rebuilt = rebuilt.with(entry);
+                }
+            }
+            index = rebuilt;
+            rebuilding = false;
+            addedDuringRebuild.clear();
+        }
+        log.info("VHS suggest index rebuilt titles={} keyBytes={}", entries.size(), index.base().keys.length);
+    }
+
+    public synchronized void add(UUID id, String title) {
+        Entry entry = Entry.of(id, title, 0);
+        index = index.with(entry);
+        if (rebuilding) {
+            addedDuringRebuild.add(entry);
+        }
+    }
+
+    /**
+     * Picks up titles created on other nodes. A full flush rebuilds the index instead.
+     */
+    @EventListener
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.isEverything()) {
+            Thread.ofVirtual().name("vhs-suggest-index").start(this::rebuild);
+        } else if (event.concerns(CatalogChangeEvent.VHS)) {
+            UUID id = UUID.fromString(event.id());
+            jdbcTemplate.query("SELECT title FROM vhs WHERE id = ?", rs -> {
+                Entry entry = Entry.of(id, rs.getString("title"), 0);
+                synchronized (this) {
+                    if (!index.contains(entry)) {
+                        add(id, entry.title());
+                    }
+                }
+            }, id);
+        }
+    }
+
+    public List<VHSSuggestionDTO> suggest(String prefix, int limit) {
+        byte[] key = normalize(prefix).getBytes(StandardCharsets.UTF_8);
+        Index current = index;
+        int size = Math.clamp(limit, 1, MAX_SUGGESTIONS);
+        Snapshot base = current.base();
+        Snapshot recent = current.recent();
+        int[] fromBase = base.top(key, size);
+        int[] fromRecent = recent.top(key, size);
+        List<VHSSuggestionDTO> suggestions = new ArrayList<>(Math.min(size, fromBase.length + fromRecent.length));
+        int b = 0;
+        int r = 0;
+        while (suggestions.size() < size && (b < fromBase.length || r < fromRecent.length)) {
+            if (r == fromRecent.length || (b < fromBase.length && base.ranksBefore(fromBase[b], recent, fromRecent[r]))) {
+                suggestions.add(base.suggestion(fromBase[b++]));
+            } else {
+                suggestions.add(recent.suggestion(fromRecent[r++]));
+            }
+        }
+        return suggestions;
+    }
+
+    static String normalize(String title) {
+        String decomposed = Normalizer.normalize(title == null ? "" : title, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(byte[] key, String title, long idMsb, long idLsb, int popularity) {
+        static Entry of(UUID id, String title, int popularity) {
+            return new Entry(normalize(title).getBytes(StandardCharsets.UTF_8), title,
+                    id.getMostSignificantBits(), id.getLeastSignificantBits(), popularity);
+        }
+    }
+
+    /**
+     * The packed titles of the last rebuild or merge, and the overlay of titles added since.
+     */
+    private record Index(Snapshot base, Snapshot recent) {
+        static final Index EMPTY = new Index(Snapshot.EMPTY, Snapshot.EMPTY);
+
+        Index with(Entry entry) {
+            Snapshot added = recent.with(entry);
+            return added.size() < MERGE_THRESHOLD
+                    ? new Index(base, added)
+                    : new Index(Snapshot.merge(base, added), Snapshot.EMPTY);
+        }
+
+        boolean contains(Entry entry) {
+            return base.contains(entry) || recent.contains(entry);
+        }
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new byte[0], new int[]{0}, new String[0], new long[0], new long[0], new int[0]);
+        final byte[] keys;
+        final int[] offsets;
+        final String[] titles;
+        final long[] idMsb;
+        final long[] idLsb;
+        final int[] popularity;
+        final Map<String, int[]> memoized = new ConcurrentHashMap<>();
+
+        Snapshot(byte[] keys, int[] offsets, String[] titles, long[] idMsb, long[] idLsb, int[] popularity) {
+            this.keys = keys;
+            this.offsets = offsets;
+            this.titles = titles;
+            this.idMsb = idMsb;
+            this.idLsb = idLsb;
+            this.popularity = popularity;
+        }
+
+        static Snapshot of(List<Entry> entries) {
+            entries.sort(Comparator.comparing(Entry::key, Arrays::compareUnsigned));
+            int size = entries.size();
+            int totalBytes = 0;
+            for (Entry entry : entries) {
+                totalBytes += entry.key().length;
+            }
+            byte[] keys = new byte[totalBytes];
+            int[] offsets = new int[size + 1];
+            String[] titles = new String[size];
+            long[] idMsb = new long[size];
+            long[] idLsb = new long[size];
+            int[] popularity = new int[size];
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                System.arraycopy(entry.key(), 0, keys, offsets[i], entry.key().length);
+                offsets[i + 1] = offsets[i] + entry.key().length;
+                titles[i] = entry.title();
+                idMsb[i] = entry.idMsb();
+                idLsb[i] = entry.idLsb();
+                popularity[i] = entry.popularity();
+            }
+            return new Snapshot(keys, offsets, titles, idMsb, idLsb, popularity);
+        }
+
+        /**
+         * Both snapshots' titles in key order, copied across once.
+         */
+        static Snapshot merge(Snapshot first, Snapshot second) {
+            int size = first.size() + second.size();
+            byte[] keys = new byte[first.keys.length + second.keys.length];
+            int[] offsets = new int[size + 1];
+            String[] titles = new String[size];
+            long[] idMsb = new long[size];
+            long[] idLsb = new long[size];
+            int[] popularity = new int[size];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < size; k++) {
+                Snapshot from;
+                int at;
+                if (j == second.size() || (i < first.size() && first.compareKeys(i, second, j) <= 0)) {
+                    from = first;
+                    at = i++;
+                } else {
+                    from = second;
+                    at = j++;
+                }
+                int length = from.offsets[at + 1] - from.offsets[at];
+                System.arraycopy(from.keys, from.offsets[at], keys, offsets[k], length);
+                offsets[k + 1] = offsets[k] + length;
+                titles[k] = from.titles[at];
+                idMsb[k] = from.idMsb[at];
+                idLsb[k] = from.idLsb[at];
+                popularity[k] = from.popularity[at];
+            }
+            return new Snapshot(keys, offsets, titles, idMsb, idLsb, popularity);
+        }
+
+        int size() {
+            return titles.length;
+        }
+
+        VHSSuggestionDTO suggestion(int index) {
+            return new VHSSuggestionDTO(new UUID(idMsb[index], idLsb[index]), titles[index]);
+        }
+
+        /**
+         * Whether title {@code index} is suggested ahead of {@code otherIndex} of {@code other}: more popular first,
+         * alphabetical among equals, as in {@link #best}.
+         */
+        boolean ranksBefore(int index, Snapshot other, int otherIndex) {
+            if (popularity[index] != other.popularity[otherIndex]) {
+                return popularity[index] > other.popularity[otherIndex];
+            }
+            return compareKeys(index, other, otherIndex) <= 0;
+        }
+
+        Snapshot with(Entry entry) {
+            int size = size();
+            int at = lowerBound(entry.key(), false);
+            int keyLength = entry.key().length;
+            byte[] newKeys = new byte[keys.length + keyLength];
+            System.arraycopy(keys, 0, newKeys, 0, offsets[at]);
+            System.arraycopy(entry.key(), 0, newKeys, offsets[at], keyLength);
+            System.arraycopy(keys, offsets[at], newKeys, offsets[at] + keyLength, keys.length - offsets[at]);
+            int[] newOffsets = new int[size + 2];
+            System.arraycopy(offsets, 0, newOffsets, 0, at + 1);
+            for (int i = at; i <= size; i++) {
+                newOffsets[i + 1] = offsets[i] + keyLength;
+            }
+            return new Snapshot(newKeys, newOffsets,
+                    insert(titles, at, entry.title()),
+                    insert(idMsb, at, entry.idMsb()),
+                    insert(idLsb, at, entry.idLsb()),
+                    insert(popularity, at, entry.popularity()));
+        }
+
+        boolean contains(Entry entry) {
+            for (int i = lowerBound(entry.key(), false); i < size() && compare(i, entry.key(), false) == 0; i++) {
+                if (idMsb[i] == entry.idMsb() && idLsb[i] == entry.idLsb()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int[] top(byte[] prefix, int limit) {
+            int from = lowerBound(prefix, false);
+            int to = lowerBound(prefix, true);
+            if (to - from <= MEMOIZE_RANGE_THRESHOLD) {
+                return best(from, to, limit);
+            }
+            int[] cached = memoized.computeIfAbsent(new String(prefix, StandardCharsets.UTF_8), _ -> best(from, to, MAX_SUGGESTIONS));
+            return cached.length <= limit ? cached : Arrays.copyOf(cached, limit);
+        }
+
+        /**
+         * Indices of the {@code limit} most popular titles in {@code [from, to)}, most popular first and
+         * alphabetical among equals. Kept in a small insertion-sorted array since {@code limit} is tiny.
+         */
+        private int[] best(int from, int to, int limit) {
+            int[] best = new int[Math.min(limit, to - from)];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if (count == best.length && popularity[i] <= popularity[best[count - 1]]) {
+                    continue;
+                }
+                int position = count < best.length ? count++ : count - 1;
+                while (position > 0 && popularity[best[position - 1]] < popularity[i]) {
+                    best[position] = best[position - 1];
+                    position--;
+                }
+                best[position] = i;
+            }
+            return best;
+        }
+
+        /**
+         * First index whose key is not below {@code prefix}; with {@code pastPrefix} set, the first index whose key
+         * neither starts with nor sorts before {@code prefix}, i.e. the end of the prefix range.
+         */
+        private int lowerBound(byte[] prefix, boolean pastPrefix) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(mid, prefix, pastPrefix);
+                if (cmp < 0 || (pastPrefix && cmp == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int compareKeys(int index, Snapshot other, int otherIndex) {
+            return Arrays.compareUnsigned(keys, offsets[index], offsets[index + 1],
+                    other.keys, other.offsets[otherIndex], other.offsets[otherIndex + 1]);
+        }
+
+        private int compare(int index, byte[] prefix, boolean truncateKey) {
+            int start = offsets[index];
+            int end = offsets[index + 1];
+            if (truncateKey) {
+                end = Math.min(end, start + prefix.length);
+            }
+            return Arrays.compareUnsigned(keys, start, end, prefix, 0, prefix.length);
+        }
+
+        private static String[] insert(String[] array, int at, String value) {
+            String[] result = new String[array.length + 1];
+            System.arraycopy(array, 0, result, 0, at);
+            result[at] = value;
+            System.arraycopy(array, at, result, at + 1, array.length - at);
+            return result;
+        }
+
+        private static long[] insert(long[] array, int at, long value) {
+            long[] result = new long[array.length + 1];
+            System.arraycopy(array, 0, result, 0, at);
+            result[at] = value;
+            System.arraycopy(array, at, result, at + 1, array.length - at);
+            return result;
+        }
+
+        private static int[] insert(int[] array, int at, int value) {
+            int[] result = new int[array.length + 1];
+            System.arraycopy(array, 0, result, 0, at);
+            result[at] = value;
+            System.arraycopy(array, at, result, at + 1, array.length - at);
+            return result;
+        }
+    }
+}
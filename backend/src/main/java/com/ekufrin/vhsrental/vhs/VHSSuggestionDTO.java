@@ -0,0 +1,6 @@
+package com.ekufrin.vhsrental.vhs;
+
+import java.util.UUID;
+
+public record VHSSuggestionDTO(UUID id, String title) {
+}
@@ -0,0 +1,23 @@
+-- Title search: a trigger-maintained tsvector for word matches and a trigram index for typo-tolerant matches.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS search_vector TSVECTOR;
+
+CREATE OR REPLACE FUNCTION vhs_update_search_vector() RETURNS TRIGGER AS
+$$
+BEGIN
+    NEW.search_vector := to_tsvector('simple', COALESCE(NEW.title, ''));
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_vhs_search_vector
+    BEFORE INSERT OR UPDATE OF title
+    ON vhs
+    FOR EACH ROW
+EXECUTE FUNCTION vhs_update_search_vector();
+
+UPDATE vhs SET search_vector = to_tsvector('simple', COALESCE(title, ''));
+
+CREATE INDEX IF NOT EXISTS idx_vhs_search_vector ON vhs USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_vhs_title_trgm ON vhs USING GIN (lower(title) gin_trgm_ops);
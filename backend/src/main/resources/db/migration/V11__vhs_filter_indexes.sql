@@ -0,0 +1,4 @@
+-- Catalog filters: genre narrows first, then status and price; decade filters range over release_date.
+CREATE INDEX IF NOT EXISTS idx_vhs_genre_status_price ON vhs (genre_id, status, rental_price);
+CREATE INDEX IF NOT EXISTS idx_vhs_status_price ON vhs (status, rental_price);
+CREATE INDEX IF NOT EXISTS idx_vhs_release_date ON vhs (release_date);
@@ -0,0 +1,96 @@
+-- Delta sync: every catalog row records the transaction that last wrote it, and deletes leave tombstones.
+-- change_xid is the 64-bit transaction id; clients only ever see changes below the oldest running transaction,
+-- so a row committed late under a smaller id cannot slip behind a token.
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS change_xid BIGINT;
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ;
+ALTER TABLE genres ADD COLUMN IF NOT EXISTS change_xid BIGINT;
+ALTER TABLE genres ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ;
+
+CREATE TABLE IF NOT EXISTS catalog_tombstones
+(
+    entity     VARCHAR(16) NOT NULL,
+    id         UUID        NOT NULL,
+    change_xid BIGINT      NOT NULL,
+    deleted_at TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (entity, id)
+);
+
+CREATE OR REPLACE FUNCTION catalog_track_change() RETURNS TRIGGER AS
+$$
+BEGIN
+    NEW.change_xid := CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT);
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION catalog_track_delete() RETURNS TRIGGER AS
+$$
+BEGIN
+    INSERT INTO catalog_tombstones (entity, id, change_xid, deleted_at)
+    VALUES (TG_ARGV[0], OLD.id, CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT), now())
+    ON CONFLICT (entity, id) DO UPDATE SET change_xid = EXCLUDED.change_xid, deleted_at = EXCLUDED.deleted_at;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Only writes to columns a client can see count as changes; stock reservations touch available_count alone.
+DROP TRIGGER IF EXISTS trg_vhs_track_change ON vhs;
+DROP TRIGGER IF EXISTS trg_vhs_track_insert ON vhs;
+DROP TRIGGER IF EXISTS trg_vhs_track_delete ON vhs;
+DROP TRIGGER IF EXISTS trg_genres_track_change ON genres;
+DROP TRIGGER IF EXISTS trg_genres_track_insert ON genres;
+DROP TRIGGER IF EXISTS trg_genres_track_delete ON genres;
+
+CREATE TRIGGER trg_vhs_track_insert
+    BEFORE INSERT
+    ON vhs
+    FOR EACH ROW
+EXECUTE FUNCTION catalog_track_change();
+
+CREATE TRIGGER trg_vhs_track_change
+    BEFORE UPDATE
+    ON vhs
+    FOR EACH ROW
+    WHEN (ROW (OLD.title, OLD.release_date, OLD.genre_id, OLD.rental_price, OLD.stock_level, OLD.status,
+               OLD.image_id, OLD.image_extension)
+        IS DISTINCT FROM
+          ROW (NEW.title, NEW.release_date, NEW.genre_id, NEW.rental_price, NEW.stock_level, NEW.status,
+               NEW.image_id, NEW.image_extension))
+EXECUTE FUNCTION catalog_track_change();
+
+CREATE TRIGGER trg_vhs_track_delete
+    AFTER DELETE
+    ON vhs
+    FOR EACH ROW
+EXECUTE FUNCTION catalog_track_delete('vhs');
+
+CREATE TRIGGER trg_genres_track_insert
+    BEFORE INSERT
+    ON genres
+    FOR EACH ROW
+EXECUTE FUNCTION catalog_track_change();
+
+CREATE TRIGGER trg_genres_track_change
+    BEFORE UPDATE
+    ON genres
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+EXECUTE FUNCTION catalog_track_change();
+
+CREATE TRIGGER trg_genres_track_delete
+    AFTER DELETE
+    ON genres
+    FOR EACH ROW
+EXECUTE FUNCTION catalog_track_delete('genre');
+
+-- Existing rows count as written by this migration.
+UPDATE vhs SET change_xid = CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT), updated_at = now();
+UPDATE genres SET change_xid = CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT), updated_at = now();
+
+ALTER TABLE vhs ALTER COLUMN change_xid SET NOT NULL;
+ALTER TABLE genres ALTER COLUMN change_xid SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_vhs_change ON vhs (change_xid, id);
+CREATE INDEX IF NOT EXISTS idx_genres_change ON genres (change_xid, id);
+CREATE INDEX IF NOT EXISTS idx_catalog_tombstones_change ON catalog_tombstones (change_xid, id);
@@ -0,0 +1,2 @@
+-- Cover art is stored content-addressed; image_id stays for covers uploaded before.
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS image_hash VARCHAR(64);
@@ -0,0 +1,51 @@
+-- Rating aggregates per title, maintained by ReviewService in the same transaction as the review itself.
+-- rating_1 .. rating_5 form the histogram of ratings rounded to whole stars. rating_sum adds every rating rounded to
+-- two decimals as an exact NUMERIC, so adding and later removing the same rating always nets out to zero.
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS rating_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS rating_sum NUMERIC(12, 2) NOT NULL DEFAULT 0;
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS rating_1 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS rating_2 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS rating_3 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS rating_4 INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS rating_5 INTEGER NOT NULL DEFAULT 0;
+
+-- The cover hash and the rating aggregates are part of a title as clients see it, so writes to them are changes.
+-- The trigger is replaced before the backfill so titles that already have reviews reach delta-sync clients.
+DROP TRIGGER IF EXISTS trg_vhs_track_change ON vhs;
+
+CREATE TRIGGER trg_vhs_track_change
+    BEFORE UPDATE
+    ON vhs
+    FOR EACH ROW
+    WHEN (ROW (OLD.title, OLD.release_date, OLD.genre_id, OLD.rental_price, OLD.stock_level, OLD.status,
+               OLD.image_id, OLD.image_extension, OLD.image_hash, OLD.rating_count, OLD.rating_sum,
+               OLD.rating_1, OLD.rating_2, OLD.rating_3, OLD.rating_4, OLD.rating_5)
+        IS DISTINCT FROM
+          ROW (NEW.title, NEW.release_date, NEW.genre_id, NEW.rental_price, NEW.stock_level, NEW.status,
+               NEW.image_id, NEW.image_extension, NEW.image_hash, NEW.rating_count, NEW.rating_sum,
+               NEW.rating_1, NEW.rating_2, NEW.rating_3, NEW.rating_4, NEW.rating_5))
+EXECUTE FUNCTION catalog_track_change();
+
+UPDATE vhs v
+SET rating_count = agg.rating_count,
+    rating_sum   = agg.rating_sum,
+    rating_1     = agg.rating_1,
+    rating_2     = agg.rating_2,
+    rating_3     = agg.rating_3,
+    rating_4     = agg.rating_4,
+    rating_5     = agg.rating_5
+FROM (SELECT r.vhs_id,
+             COUNT(*)                                                AS rating_count,
+             SUM(ROUND(CAST(rv.rating AS NUMERIC), 2))                AS rating_sum,
+             COUNT(*) FILTER (WHERE ROUND(CAST(rv.rating AS NUMERIC)) <= 1) AS rating_1,
+             COUNT(*) FILTER (WHERE ROUND(CAST(rv.rating AS NUMERIC)) = 2)  AS rating_2,
+             COUNT(*) FILTER (WHERE ROUND(CAST(rv.rating AS NUMERIC)) = 3)  AS rating_3,
+             COUNT(*) FILTER (WHERE ROUND(CAST(rv.rating AS NUMERIC)) = 4)  AS rating_4,
+             COUNT(*) FILTER (WHERE ROUND(CAST(rv.rating AS NUMERIC)) >= 5) AS rating_5
+      FROM reviews rv
+               JOIN rentals r ON r.id = rv.rental_id
+      GROUP BY r.vhs_id) agg
+WHERE v.id = agg.vhs_id;
+
+ALTER TABLE vhs ADD CONSTRAINT chk_vhs_rating_histogram
+    CHECK (rating_count >= 0 AND rating_1 + rating_2 + rating_3 + rating_4 + rating_5 = rating_count);
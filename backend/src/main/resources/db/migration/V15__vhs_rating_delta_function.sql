@@ -0,0 +1,22 @@
+-- One definition of how a rating moves into and/or out of a title's aggregates, shared by the review insert
+-- statement and the update/delete path. A star of 0 means none; returns the number of titles updated.
+CREATE OR REPLACE FUNCTION vhs_apply_rating_delta(p_vhs_id UUID, p_count_delta INTEGER, p_sum_delta NUMERIC,
+                                                  p_added_star INTEGER, p_removed_star INTEGER)
+    RETURNS INTEGER AS
+$$
+DECLARE
+    updated INTEGER;
+BEGIN
+    UPDATE vhs
+    SET rating_count = rating_count + p_count_delta,
+        rating_sum   = rating_sum + p_sum_delta,
+        rating_1     = rating_1 + CASE WHEN p_added_star = 1 THEN 1 ELSE 0 END - CASE WHEN p_removed_star = 1 THEN 1 ELSE 0 END,
+        rating_2     = rating_2 + CASE WHEN p_added_star = 2 THEN 1 ELSE 0 END - CASE WHEN p_removed_star = 2 THEN 1 ELSE 0 END,
+        rating_3     = rating_3 + CASE WHEN p_added_star = 3 THEN 1 ELSE 0 END - CASE WHEN p_removed_star = 3 THEN 1 ELSE 0 END,
+        rating_4     = rating_4 + CASE WHEN p_added_star = 4 THEN 1 ELSE 0 END - CASE WHEN p_removed_star = 4 THEN 1 ELSE 0 END,
+        rating_5     = rating_5 + CASE WHEN p_added_star = 5 THEN 1 ELSE 0 END - CASE WHEN p_removed_star = 5 THEN 1 ELSE 0 END
+    WHERE id = p_vhs_id;
+    GET DIAGNOSTICS updated = ROW_COUNT;
+    RETURN updated;
+END;
+$$ LANGUAGE plpgsql;
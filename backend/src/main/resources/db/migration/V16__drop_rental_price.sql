@@ -0,0 +1,17 @@
+-- price_cents is the only stored price; the decimal amount is derived from it in the application.
+UPDATE rentals
+SET price_cents = ROUND(price * 100)
+WHERE price_cents IS NULL
+  AND price IS NOT NULL;
+
+CREATE OR REPLACE FUNCTION rentals_default_daily_price_cents() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF NEW.daily_price_cents IS NULL THEN
+        SELECT ROUND(v.rental_price * 100) INTO NEW.daily_price_cents FROM vhs v WHERE v.id = NEW.vhs_id;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE rentals DROP COLUMN IF EXISTS price;
@@ -0,0 +1,22 @@
+-- Set once every downscaled rendition of the title's cover is stored. Until then clients are given the original for
+-- each variant. Existing covers start out pending and are picked up by the variant retry pass.
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS image_variants_ready BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX IF NOT EXISTS idx_vhs_image_variants_pending ON vhs (image_hash)
+    WHERE image_hash IS NOT NULL AND NOT image_variants_ready;
+
+-- Which URLs a title advertises for its variants is part of the title as clients see it.
+DROP TRIGGER IF EXISTS trg_vhs_track_change ON vhs;
+
+CREATE TRIGGER trg_vhs_track_change
+    BEFORE UPDATE
+    ON vhs
+    FOR EACH ROW
+    WHEN (ROW (OLD.title, OLD.release_date, OLD.genre_id, OLD.rental_price, OLD.stock_level, OLD.status,
+               OLD.image_id, OLD.image_extension, OLD.image_hash, OLD.image_variants_ready, OLD.rating_count,
+               OLD.rating_sum, OLD.rating_1, OLD.rating_2, OLD.rating_3, OLD.rating_4, OLD.rating_5)
+        IS DISTINCT FROM
+          ROW (NEW.title, NEW.release_date, NEW.genre_id, NEW.rental_price, NEW.stock_level, NEW.status,
+               NEW.image_id, NEW.image_extension, NEW.image_hash, NEW.image_variants_ready, NEW.rating_count,
+               NEW.rating_sum, NEW.rating_1, NEW.rating_2, NEW.rating_3, NEW.rating_4, NEW.rating_5))
+EXECUTE FUNCTION catalog_track_change();
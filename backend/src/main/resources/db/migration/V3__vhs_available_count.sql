@@ -0,0 +1,31 @@
+-- Authoritative per-title availability counter used by the rental reservation path.
+ALTER TABLE vhs ADD COLUMN IF NOT EXISTS available_count INTEGER;
+
+UPDATE vhs v
+SET available_count = GREATEST(
+        v.stock_level - (SELECT COUNT(*)
+                         FROM rentals r
+                         WHERE r.vhs_id = v.id
+                           AND r.return_date IS NULL),
+        0);
+
+-- Rows inserted without an explicit counter (seed scripts, manual inserts) start fully available.
+CREATE OR REPLACE FUNCTION vhs_default_available_count() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF NEW.available_count IS NULL THEN
+        NEW.available_count := NEW.stock_level;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_vhs_default_available_count
+    BEFORE INSERT
+    ON vhs
+    FOR EACH ROW
+EXECUTE FUNCTION vhs_default_available_count();
+
+ALTER TABLE vhs ALTER COLUMN available_count SET NOT NULL;
+ALTER TABLE vhs
+    ADD CONSTRAINT chk_vhs_available_count CHECK (available_count >= 0 AND available_count <= stock_level);
@@ -0,0 +1,2 @@
+-- Supports keyset pagination over (rental_date, id) for GET /rentals/scroll.
+CREATE INDEX IF NOT EXISTS idx_rentals_rental_date_id ON rentals (rental_date DESC, id DESC);
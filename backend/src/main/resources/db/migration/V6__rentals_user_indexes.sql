@@ -0,0 +1,5 @@
+-- Open rentals per user, ordered by due date: serves the active and overdue views.
+CREATE INDEX IF NOT EXISTS idx_rentals_user_open_due ON rentals (user_id, due_date) WHERE return_date IS NULL;
+
+-- Full per-user history, newest first: serves the returned and unfiltered views.
+CREATE INDEX IF NOT EXISTS idx_rentals_user_rental_date ON rentals (user_id, rental_date DESC, return_date);
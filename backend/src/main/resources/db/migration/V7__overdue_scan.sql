@@ -0,0 +1,12 @@
+ALTER TABLE rentals ADD COLUMN IF NOT EXISTS accrued_late_fee NUMERIC(10, 2);
+
+-- Keyset walk over open rentals in due-date order, used by the overdue scanner and feed.
+CREATE INDEX IF NOT EXISTS idx_rentals_open_due_id ON rentals (due_date, id) WHERE return_date IS NULL;
+
+CREATE TABLE IF NOT EXISTS job_checkpoints
+(
+    job_name          VARCHAR(100) PRIMARY KEY,
+    cursor            VARCHAR(255),
+    last_completed_at TIMESTAMP,
+    updated_at        TIMESTAMP NOT NULL
+);
@@ -0,0 +1,36 @@
+-- Rentals are priced in integer cents from the daily price captured at checkout.
+ALTER TABLE rentals ADD COLUMN IF NOT EXISTS daily_price_cents BIGINT;
+ALTER TABLE rentals ADD COLUMN IF NOT EXISTS price_cents BIGINT;
+
+UPDATE rentals r
+SET daily_price_cents = ROUND(v.rental_price * 100)
+FROM vhs v
+WHERE v.id = r.vhs_id;
+
+UPDATE rentals
+SET price_cents = ROUND(price * 100)
+WHERE price IS NOT NULL;
+
+-- Rows inserted without a snapshot (seed scripts, manual inserts) take the title's current price.
+CREATE OR REPLACE FUNCTION rentals_default_daily_price_cents() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF NEW.daily_price_cents IS NULL THEN
+        SELECT ROUND(v.rental_price * 100) INTO NEW.daily_price_cents FROM vhs v WHERE v.id = NEW.vhs_id;
+    END IF;
+    IF NEW.price_cents IS NULL AND NEW.price IS NOT NULL THEN
+        NEW.price_cents := ROUND(NEW.price * 100);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_rentals_default_daily_price_cents
+    BEFORE INSERT
+    ON rentals
+    FOR EACH ROW
+EXECUTE FUNCTION rentals_default_daily_price_cents();
+
+ALTER TABLE rentals ALTER COLUMN daily_price_cents SET NOT NULL;
+
+ALTER TABLE rentals ALTER COLUMN price TYPE NUMERIC(10, 2);
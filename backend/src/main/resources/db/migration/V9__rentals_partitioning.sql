@@ -0,0 +1,153 @@
+-- Rentals become a partitioned table: finished rentals past the archive age live in rentals_archive, everything
+-- else lives in rentals_hot, which is split into monthly partitions on rental_date. RentalPartitionMaintenance
+-- keeps future months created and moves rows into the archive; queries keep going through "rentals" and see both.
+-- The primary key has to carry the partition columns, so id uniqueness and the reviews foreign key move to
+-- rental_ids, a one-column lookup table that the triggers below keep in step with rentals.
+ALTER TABLE reviews DROP CONSTRAINT IF EXISTS reviews_rental_id_fkey;
+ALTER TABLE rentals RENAME TO rentals_legacy;
+
+CREATE TABLE rentals
+(
+    id                UUID        NOT NULL,
+    vhs_id            UUID        NOT NULL REFERENCES vhs (id),
+    user_id           UUID        NOT NULL REFERENCES users (id),
+    rental_date       TIMESTAMP   NOT NULL,
+    due_date          TIMESTAMP   NOT NULL,
+    return_date       TIMESTAMP,
+    price             NUMERIC(10, 2),
+    version           BIGINT      NOT NULL DEFAULT 0,
+    accrued_late_fee  NUMERIC(10, 2),
+    daily_price_cents BIGINT      NOT NULL,
+    price_cents       BIGINT,
+    archived          BOOLEAN     NOT NULL DEFAULT false,
+    PRIMARY KEY (id, archived, rental_date)
+) PARTITION BY LIST (archived);
+
+CREATE TABLE rentals_archive PARTITION OF rentals
+    (CONSTRAINT chk_rentals_archive_returned CHECK (return_date IS NOT NULL))
+    FOR VALUES IN (true);
+
+CREATE TABLE rentals_hot PARTITION OF rentals
+    FOR VALUES IN (false)
+    PARTITION BY RANGE (rental_date);
+
+CREATE TABLE rentals_hot_default PARTITION OF rentals_hot DEFAULT;
+
+DO
+$$
+    DECLARE
+        month_start DATE := date_trunc('month', COALESCE((SELECT MIN(rental_date) FROM rentals_legacy), now()));
+        last_month  DATE := date_trunc('month', now()) + INTERVAL '3 months';
+    BEGIN
+        WHILE month_start <= last_month
+            LOOP
+                EXECUTE format(
+                        'CREATE TABLE IF NOT EXISTS %I PARTITION OF rentals_hot FOR VALUES FROM (%L) TO (%L)',
+                        'rentals_p' || to_char(month_start, 'YYYY_MM'),
+                        month_start,
+                        (month_start + INTERVAL '1 month')::DATE
+                        );
+                month_start := month_start + INTERVAL '1 month';
+            END LOOP;
+    END
+$$;
+
+INSERT INTO rentals (id, vhs_id, user_id, rental_date, due_date, return_date, price, version, accrued_late_fee,
+                     daily_price_cents, price_cents)
+SELECT id,
+       vhs_id,
+       user_id,
+       rental_date,
+       due_date,
+       return_date,
+       price,
+       version,
+       accrued_late_fee,
+       daily_price_cents,
+       price_cents
+FROM rentals_legacy;
+
+DROP TABLE rentals_legacy CASCADE;
+
+CREATE TABLE rental_ids
+(
+    id UUID PRIMARY KEY
+);
+
+INSERT INTO rental_ids (id)
+SELECT id
+FROM rentals;
+
+ALTER TABLE reviews
+    ADD CONSTRAINT reviews_rental_id_fkey FOREIGN KEY (rental_id) REFERENCES rental_ids (id);
+
+-- Archiving moves a row as a delete from rentals_hot plus an insert into rentals_archive. AFTER row triggers run
+-- once the whole statement is done, so by then the moved row is back in rentals and its id stays registered.
+-- New rentals are always hot, so a hot insert claims its id strictly; an archive insert is a move unless the id
+-- is now held by more than one row.
+CREATE OR REPLACE FUNCTION rentals_register_id()
+    RETURNS trigger AS
+$$
+BEGIN
+    IF NOT NEW.archived THEN
+        INSERT INTO rental_ids (id) VALUES (NEW.id);
+    ELSIF (SELECT COUNT(*) FROM rentals WHERE id = NEW.id) > 1 THEN
+        RAISE EXCEPTION 'duplicate rental id %', NEW.id USING ERRCODE = 'unique_violation';
+    ELSE
+        INSERT INTO rental_ids (id) VALUES (NEW.id) ON CONFLICT (id) DO NOTHING;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION rentals_release_id()
+    RETURNS trigger AS
+$$
+BEGIN
+    DELETE
+    FROM rental_ids
+    WHERE id = OLD.id
+      AND NOT EXISTS (SELECT 1 FROM rentals WHERE id = OLD.id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION rentals_reject_id_change()
+    RETURNS trigger AS
+$$
+BEGIN
+    RAISE EXCEPTION 'rental id cannot change (% -> %)', OLD.id, NEW.id USING ERRCODE = 'feature_not_supported';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_rentals_register_id
+    AFTER INSERT
+    ON rentals
+    FOR EACH ROW
+EXECUTE FUNCTION rentals_register_id();
+
+CREATE TRIGGER trg_rentals_release_id
+    AFTER DELETE
+    ON rentals
+    FOR EACH ROW
+EXECUTE FUNCTION rentals_release_id();
+
+CREATE TRIGGER trg_rentals_reject_id_change
+    BEFORE UPDATE OF id
+    ON rentals
+    FOR EACH ROW
+    WHEN (OLD.id IS DISTINCT FROM NEW.id)
+EXECUTE FUNCTION rentals_reject_id_change();
+
+CREATE INDEX IF NOT EXISTS idx_rentals_id ON rentals (id);
+CREATE INDEX IF NOT EXISTS idx_rentals_rental_date_id ON rentals (rental_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_rentals_user_open_due ON rentals (user_id, due_date) WHERE return_date IS NULL;
+CREATE INDEX IF NOT EXISTS idx_rentals_user_rental_date ON rentals (user_id, rental_date DESC, return_date);
+CREATE INDEX IF NOT EXISTS idx_rentals_open_due_id ON rentals (due_date, id) WHERE return_date IS NULL;
+CREATE INDEX IF NOT EXISTS idx_rentals_vhs_id ON rentals (vhs_id);
+
+CREATE TRIGGER trg_rentals_default_daily_price_cents
+    BEFORE INSERT
+    ON rentals
+    FOR EACH ROW
+EXECUTE FUNCTION rentals_default_daily_price_cents();
@@ -0,0 +1,145 @@
+package com.ekufrin.vhsrental.config;
+
+import com.ekufrin.vhsrental.genre.GenreRepository;
+import com.ekufrin.vhsrental.support.CatalogTestFixture;
+import com.ekufrin.vhsrental.vhs.VHS;
+import com.ekufrin.vhsrental.vhs.VHSRepository;
+import com.ekufrin.vhsrental.vhs.VHSService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "catalog.invalidation.enabled=true")
+@ActiveProfiles("test")
+class CacheInvalidationBusTest {
+    private static final String OTHER_NODE = "other-node";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    @Autowired
+    private CacheInvalidationProperties properties;
+    @Autowired
+    private CatalogVersions catalogVersions;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private VHSService vhsService;
+    @Autowired
+    private VHSRepository vhsRepository;
+    @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private CatalogTestFixture catalog;
+    private VHS vhs;
+    private VHS other;
+    private final Pageable firstPage = PageRequest.of(0, 10);
+
+    @BeforeEach
+    void setUp() {
+        // Notifications sent before the listener's LISTEN are not delivered, so wait for it first.
+        await(() -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_stat_activity WHERE query = ?", Integer.class,
+                "LISTEN \"" + properties.channel() + "\"") > 0);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        catalog = new CatalogTestFixture(vhsRepository, genreRepository, jdbcTemplate);
+        vhs = catalog.createTape("Notified Tape", 2);
+        other = catalog.createTape("Bystander Tape", 2);
+        vhsService.getVHSById(vhs.getId());
+        vhsService.getVHSById(other.getId());
+        vhsService.getAllVHS(firstPage);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalog.cleanUp();
+    }
+
+    @Test
+    @DisplayName("a title change announced by another node evicts that title and the pages and moves its ETag")
+    void foreignVHSNotification_EvictsTitleAndPages() {
+        String etag = catalogVersions.vhsETag(vhs.getId());
+
+        notifyAsOtherNode(CatalogChangeEvent.VHS, vhs.getId().toString());
+
+        await(() -> cache(CacheConfiguration.VHS_BY_ID).get(vhs.getId()) == null);
+        assertThat(cache(CacheConfiguration.VHS_PAGES).get(firstPage)).isNull();
+        assertThat(cache(CacheConfiguration.VHS_BY_ID).get(other.getId())).isNotNull();
+        assertThat(catalogVersions.vhsETag(vhs.getId())).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("a node ignores the notifications it sent itself")
+    void ownNotification_Ignored() {
+        cacheInvalidationBus.publish(CatalogChangeEvent.VHS, vhs.getId());
+        // Notifications arrive in send order, so once this one is handled the node's own one has been seen too.
+        notifyAsOtherNode(CatalogChangeEvent.VHS, other.getId().toString());
+
+        await(() -> cache(CacheConfiguration.VHS_BY_ID).get(other.getId()) == null);
+        assertThat(cache(CacheConfiguration.VHS_BY_ID).get(vhs.getId())).isNotNull();
+    }
+
+    @Test
+    @DisplayName("an everything notification drops every catalog cache")
+    void foreignEverythingNotification_ClearsAllCaches() {
+        notifyAsOtherNode("*", "*");
+
+        await(() -> cache(CacheConfiguration.VHS_PAGES).get(firstPage) == null);
+        assertThat(cache(CacheConfiguration.VHS_BY_ID).get(vhs.getId())).isNull();
+        assertThat(cache(CacheConfiguration.VHS_BY_ID).get(other.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("a notification sent inside a transaction that rolls back is never delivered")
+    void notificationInRolledBackTransaction_NotDelivered() {
+        transactionTemplate.executeWithoutResult(status -> {
+            notifyAsOtherNode(CatalogChangeEvent.VHS, vhs.getId().toString());
+            status.setRollbackOnly();
+        });
+        notifyAsOtherNode(CatalogChangeEvent.VHS, other.getId().toString());
+
+        await(() -> cache(CacheConfiguration.VHS_BY_ID).get(other.getId()) == null);
+        assertThat(cache(CacheConfiguration.VHS_BY_ID).get(vhs.getId())).isNotNull();
+    }
+
+    private void notifyAsOtherNode(String entity, String id) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, properties.channel(), OTHER_NODE + "|" + entity + "|" + id);
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        Instant deadline = Instant.now().plus(TIMEOUT);
+        while (!condition.getAsBoolean()) {
+            assertThat(Instant.now()).as("condition not met within " + TIMEOUT).isBefore(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.ekufrin.vhsrental.config;
+
+import com.ekufrin.vhsrental.genre.GenreCreateRequest;
+import com.ekufrin.vhsrental.genre.GenreDTO;
+import com.ekufrin.vhsrental.genre.GenreRepository;
+import com.ekufrin.vhsrental.genre.GenreService;
+import com.ekufrin.vhsrental.status.Status;
+import com.ekufrin.vhsrental.support.CatalogTestFixture;
+import com.ekufrin.vhsrental.vhs.VHS;
+import com.ekufrin.vhsrental.vhs.VHSDTO;
+import com.ekufrin.vhsrental.vhs.VHSRepository;
+import com.ekufrin.vhsrental.vhs.VHSService;
+import com.ekufrin.vhsrental.vhs.VhsCreateRequest;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogCacheTest {
+    @Autowired
+    private VHSService vhsService;
+    @Autowired
+    private GenreService genreService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @MockitoSpyBean
+    private VHSRepository vhsRepository;
+    @MockitoSpyBean
+    private GenreRepository genreRepository;
+    @MockitoSpyBean
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private CatalogTestFixture catalog;
+    private VHS vhs;
+    private final List<UUID> createdVHS = new ArrayList<>();
+    private final List<UUID> createdGenres = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        catalog = new CatalogTestFixture(vhsRepository, genreRepository, jdbcTemplate);
+        vhs = catalog.createTape("Cached Tape", 2);
+        clearInvocations(vhsRepository, genreRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        createdVHS.forEach(id -> jdbcTemplate.update("DELETE FROM vhs WHERE id = ?", id));
+        createdGenres.forEach(id -> jdbcTemplate.update("DELETE FROM genres WHERE id = ?", id));
+        catalog.cleanUp();
+    }
+
+    @Test
+    @DisplayName("the second read of a title or genre is served from the cache")
+    void getById_SecondRead_ServedFromCache() {
+        VHSDTO first = vhsService.getVHSById(vhs.getId());
+        VHSDTO second = vhsService.getVHSById(vhs.getId());
+
+        assertThat(second).isSameAs(first);
+        verify(vhsRepository, times(1)).findById(vhs.getId());
+
+        UUID genreId = vhs.getGenre().getId();
+        GenreDTO genre = genreService.getGenreById(genreId);
+
+        assertThat(genreService.getGenreById(genreId)).isSameAs(genre);
+        verify(genreRepository, times(1)).findById(genreId);
+    }
+
+    @Test
+    @DisplayName("creating a title caches it and drops the catalog pages but keeps other titles")
+    void createVHS_EvictsPagesOnly() {
+        Pageable firstPage = PageRequest.of(0, 10);
+        vhsService.getVHSById(vhs.getId());
+        vhsService.getAllVHS(firstPage);
+
+        VHSDTO created = vhsService.createVHS(new VhsCreateRequest(
+                "Freshly Cached Tape", "2021-05-01T00:00:00Z", vhs.getGenre().getId().toString(), 3.0, 1,
+                Status.AVAILABLE), null);
+        createdVHS.add(created.getId());
+
+        assertThat(cache(CacheConfiguration.VHS_PAGES).get(firstPage)).isNull();
+        assertThat(cache(CacheConfiguration.VHS_BY_ID).get(vhs.getId())).isNotNull();
+        assertThat(cache(CacheConfiguration.VHS_BY_ID).get(created.getId()).get()).isEqualTo(created);
+    }
+
+    @Test
+    @DisplayName("a title created with a cover is not cached, since its variants may be flagged ready meanwhile")
+    void createVHS_WithCover_NotCached() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(20, 30, BufferedImage.TYPE_INT_RGB), "png", png);
+
+        VHSDTO created = vhsService.createVHS(new VhsCreateRequest(
+                "Covered Tape", "2021-05-01T00:00:00Z", vhs.getGenre().getId().toString(), 3.0, 1,
+                Status.AVAILABLE), new MockMultipartFile("image", "cover.png", "image/png", png.toByteArray()));
+        createdVHS.add(created.getId());
+
+        assertThat(cache(CacheConfiguration.VHS_BY_ID).get(created.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("creating a title drops the cached pages before the catalog ETag moves")
+    void createVHS_EvictsPagesBeforePublishing() {
+        Pageable firstPage = PageRequest.of(0, 10);
+        vhsService.getAllVHS(firstPage);
+        AtomicReference<Object> pageWhenPublished = new AtomicReference<>("not published");
+        doAnswer(invocation -> {
+            pageWhenPublished.set(cache(CacheConfiguration.VHS_PAGES).get(firstPage));
+            return invocation.callRealMethod();
+        }).when(cacheInvalidationBus).publish(eq(CatalogChangeEvent.VHS), any());
+
+        VHSDTO created = vhsService.createVHS(new VhsCreateRequest(
+                "Ordered Eviction Tape", "2021-05-01T00:00:00Z", vhs.getGenre().getId().toString(), 3.0, 1,
+                Status.AVAILABLE), null);
+        createdVHS.add(created.getId());
+
+        assertThat(pageWhenPublished.get()).isNull();
+    }
+
+    @Test
+    @DisplayName("creating a genre caches it and leaves every other entry in place")
+    void createGenre_TouchesOnlyItsOwnEntry() {
+        Pageable firstPage = PageRequest.of(0, 10);
+        UUID genreId = vhs.getGenre().getId();
+        vhsService.getVHSById(vhs.getId());
+        vhsService.getAllVHS(firstPage);
+        genreService.getGenreById(genreId);
+
+        GenreDTO created = genreService.createGenre(new GenreCreateRequest("Cache Test Genre"));
+        createdGenres.add(created.id());
+
+        assertThat(cache(CacheConfiguration.GENRE_BY_ID).get(created.id()).get()).isEqualTo(created);
+        assertThat(cache(CacheConfiguration.GENRE_BY_ID).get(genreId)).isNotNull();
+        assertThat(cache(CacheConfiguration.VHS_BY_ID).get(vhs.getId())).isNotNull();
+        assertThat(cache(CacheConfiguration.VHS_PAGES).get(firstPage)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("hit, miss and eviction meters are published for every catalog cache")
+    void cacheMetrics_RegisteredPerCache() {
+        double hitsBefore = gets(CacheConfiguration.VHS_BY_ID, "hit").count();
+        double missesBefore = gets(CacheConfiguration.VHS_BY_ID, "miss").count();
+
+        vhsService.getVHSById(vhs.getId());
+        vhsService.getVHSById(vhs.getId());
+
+        assertThat(gets(CacheConfiguration.VHS_BY_ID, "miss").count()).isEqualTo(missesBefore + 1);
+        assertThat(gets(CacheConfiguration.VHS_BY_ID, "hit").count()).isEqualTo(hitsBefore + 1);
+        for (String name : List.of(CacheConfiguration.VHS_BY_ID, CacheConfiguration.VHS_PAGES, CacheConfiguration.GENRE_BY_ID)) {
+            assertThat(gets(name, "hit")).as(name).isNotNull();
+            assertThat(gets(name, "miss")).as(name).isNotNull();
+            assertThat(meterRegistry.find("cache.evictions").tag("cache", name).functionCounter()).as(name).isNotNull();
+        }
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private FunctionCounter gets(String cache, String result) {
+        return meterRegistry.find("cache.gets").tag("cache", cache).tag("result", result).functionCounter();
+    }
+}
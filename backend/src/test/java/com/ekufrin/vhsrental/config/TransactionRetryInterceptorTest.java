@@ -0,0 +1,96 @@
+package com.ekufrin.vhsrental.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionRetryInterceptorTest {
+    private SimpleMeterRegistry meterRegistry;
+    private FlakyOperation target;
+    private FlakyOperation proxy;
+
+    static class FlakyOperation {
+        int calls;
+        int failuresLeft;
+        RuntimeException failure;
+
+        @RetryableTransaction("flaky")
+        public String run() {
+            calls++;
+            if (failuresLeft-- > 0) {
+                throw failure;
+            }
+            return "done";
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry));
+        TransactionRetryProperties properties = new TransactionRetryProperties(
+                3, Duration.ofMillis(1), Duration.ofMillis(5), 2.0, Map.of()
+        );
+        target = new FlakyOperation();
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new TransactionRetryInterceptor(properties, beanFactory.getBeanProvider(MeterRegistry.class)));
+        proxy = (FlakyOperation) factory.getProxy();
+    }
+
+    @Test
+    void invoke_SerializationFailure_RetriesUntilSuccess() {
+        target.failuresLeft = 2;
+        target.failure = new CannotAcquireLockException("could not serialize access");
+
+        assertThat(proxy.run()).isEqualTo("done");
+        assertThat(target.calls).isEqualTo(3);
+        assertThat(meterRegistry.counter("transaction.retry.retries", "operation", "flaky").count()).isEqualTo(2);
+    }
+
+    @Test
+    void invoke_OptimisticLockConflict_GivesUpAfterBudget() {
+        target.failuresLeft = 10;
+        target.failure = new ObjectOptimisticLockingFailureException("Rental", "id");
+
+        assertThatThrownBy(() -> proxy.run()).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(target.calls).isEqualTo(3);
+        assertThat(meterRegistry.counter("transaction.retry.give-ups", "operation", "flaky").count()).isEqualTo(1);
+    }
+
+    @Test
+    void invoke_InterruptedDuringBackoff_RethrowsConflictAndKeepsInterrupt() {
+        target.failuresLeft = 10;
+        target.failure = new CannotAcquireLockException("could not serialize access");
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> proxy.run()).isSameAs(target.failure);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+        assertThat(target.calls).isEqualTo(1);
+    }
+
+    @Test
+    void invoke_NonTransientFailure_IsNotRetried() {
+        target.failuresLeft = 1;
+        target.failure = new DataIntegrityViolationException("duplicate key");
+
+        assertThatThrownBy(() -> proxy.run()).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(target.calls).isEqualTo(1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ekufrin.vhsrental.export;
+
+import com.ekufrin.vhsrental.security.AuthService;
+import com.ekufrin.vhsrental.security.CustomUserDetailsService;
+import com.ekufrin.vhsrental.security.JWTUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ExportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private AuthService authService;
+
+    @MockitoBean
+    private JWTUtil jwtUtil;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    @DisplayName("rental export streams CSV as an attachment")
+    void exportRentals_Csv_StreamsAttachment() throws Exception {
+        given(exportService.exportRentals(ArgumentMatchers.eq(ExportFormat.CSV), ArgumentMatchers.any())).willAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(1);
+            output.write("id,vhsId\r\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        mockMvc.perform(get("/exports/rentals").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, containsString("text/csv")))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("rentals-")))
+                .andExpect(content().string("id,vhsId\r\n"));
+    }
+
+    @Test
+    @DisplayName("export with unknown format returns 400 without querying")
+    void exportCatalog_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/exports/catalog").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(exportService);
+    }
+}
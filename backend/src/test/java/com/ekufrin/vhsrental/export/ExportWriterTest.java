@@ -0,0 +1,48 @@
+package com.ekufrin.vhsrental.export;
+
+import com.ekufrin.vhsrental.review.ReviewExportRow;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportWriterTest {
+    private static final UUID ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    private static final UUID RENTAL_ID = UUID.fromString("22222222-2222-2222-2222-222222222222");
+    private static final UUID VHS_ID = UUID.fromString("33333333-3333-3333-3333-333333333333");
+    private static final UUID USER_ID = UUID.fromString("44444444-4444-4444-4444-444444444444");
+
+    @Test
+    void write_Csv_WritesHeaderAndEscapesValues() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = ExportWriter.write(Stream.of(
+                new ReviewExportRow(ID, RENTAL_ID, VHS_ID, USER_ID, 4.5, "Great, but \"long\""),
+                new ReviewExportRow(ID, RENTAL_ID, VHS_ID, USER_ID, 3.0, null)
+        ), ReviewExportRow.class, ExportFormat.CSV, JsonMapper.builder().build(), output);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,rentalId,vhsId,userId,rating,comment\r\n"
+                        + ID + "," + RENTAL_ID + "," + VHS_ID + "," + USER_ID + ",4.5,\"Great, but \"\"long\"\"\"\r\n"
+                        + ID + "," + RENTAL_ID + "," + VHS_ID + "," + USER_ID + ",3.0,\r\n");
+    }
+
+    @Test
+    void write_Ndjson_WritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        ExportWriter.write(Stream.of(
+                new ReviewExportRow(ID, RENTAL_ID, VHS_ID, USER_ID, 5.0, "Classic")
+        ), ReviewExportRow.class, ExportFormat.NDJSON, JsonMapper.builder().build(), output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).contains("\"id\":\"" + ID + "\"").contains("\"comment\":\"Classic\"");
+    }
+}
@@ -0,0 +1,96 @@
+package com.ekufrin.vhsrental.image;
+
+import com.ekufrin.vhsrental.security.CustomUserDetailsService;
+import com.ekufrin.vhsrental.security.JWTUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ImageController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ImageControllerTest {
+    private static final String FILE_NAME = "abc123.png";
+    private static final byte[] CONTENT = "0123456789".getBytes();
+
+    @TempDir
+    private Path directory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ImageStore imageStore;
+
+    @MockitoBean
+    private JWTUtil jwtUtil;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path image = Files.write(directory.resolve(FILE_NAME), CONTENT);
+        given(imageStore.size(FILE_NAME)).willReturn(OptionalLong.of(CONTENT.length));
+        given(imageStore.localPath(FILE_NAME)).willReturn(Optional.of(image));
+    }
+
+    @Test
+    @DisplayName("get image returns body with immutable caching headers")
+    void getImage_ReturnsBodyAndCacheHeaders() throws Exception {
+        mockMvc.perform(get("/uploads/" + FILE_NAME))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, ImageController.CACHE_CONTROL))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    @DisplayName("get image with matching If-None-Match returns 304")
+    void getImage_MatchingETag_ReturnsNotModified() throws Exception {
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("get image with Range returns the requested bytes")
+    void getImage_Range_ReturnsPartialContent() throws Exception {
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().bytes("2345".getBytes()));
+    }
+
+    @Test
+    @DisplayName("get image with Range past the end returns 416")
+    void getImage_RangePastEnd_ReturnsNotSatisfiable() throws Exception {
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=20-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    @DisplayName("get image with an unsupported name returns 404")
+    void getImage_InvalidName_ReturnsNotFound() throws Exception {
+        mockMvc.perform(get("/uploads/cover.gif"))
+                .andExpect(status().isNotFound());
+    }
+}
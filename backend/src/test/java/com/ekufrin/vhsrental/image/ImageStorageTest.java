@@ -0,0 +1,81 @@
+package com.ekufrin.vhsrental.image;
+
+import com.ekufrin.vhsrental.config.ImageStorageProperties;
+import com.ekufrin.vhsrental.exception.InvalidOperationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageStorageTest {
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    @TempDir
+    private Path directory;
+    private LocalImageStore imageStore;
+    private ImageStorage imageStorage;
+
+    @BeforeEach
+    void setUp() {
+        ImageStorageProperties.Local local = new ImageStorageProperties.Local(directory.resolve("images"), 2);
+        imageStore = new LocalImageStore(local);
+        imageStorage = new ImageStorage(new ImageStorageProperties(
+                ImageStorageProperties.Backend.LOCAL, directory.resolve("scratch"), DataSize.ofKilobytes(256), 2, Duration.ofMillis(50), local, null
+        ), imageStore);
+    }
+
+    private long storedFiles() throws Exception {
+        try (var files = Files.walk(directory.resolve("images"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static byte[] png(int size, byte fill) {
+        byte[] content = new byte[size];
+        Arrays.fill(content, fill);
+        System.arraycopy(PNG_HEADER, 0, content, 0, PNG_HEADER.length);
+        return content;
+    }
+
+    @Test
+    void store_SameContentTwice_SharesOneFile() throws Exception {
+        byte[] content = png(150_000, (byte) 7);
+
+        StoredImage first = imageStorage.store(new MockMultipartFile("image", "a.png", "image/png", content));
+        StoredImage second = imageStorage.store(new MockMultipartFile("image", "copy.jpg", "image/jpeg", content));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(first.extension()).isEqualTo(".png");
+        Path stored = imageStore.localPath(first.fileName()).orElseThrow();
+        assertThat(stored.getParent().getFileName().toString()).isEqualTo(first.hash().substring(2, 4));
+        assertThat(Files.readAllBytes(stored)).isEqualTo(content);
+        assertThat(storedFiles()).isEqualTo(1);
+        try (var scratch = Files.list(directory.resolve("scratch"))) {
+            assertThat(scratch).isEmpty();
+        }
+    }
+
+    @Test
+    void store_ClaimedJpegWithoutSignature_IsRejected() {
+        MockMultipartFile fake = new MockMultipartFile("image", "cover.jpg", "image/jpeg", "not an image".getBytes());
+
+        assertThatThrownBy(() -> imageStorage.store(fake)).isInstanceOf(InvalidOperationException.class);
+        assertThat(Files.exists(directory.resolve("images"))).isFalse();
+    }
+
+    @Test
+    void store_OverSizeLimit_IsRejected() {
+        MockMultipartFile large = new MockMultipartFile("image", "big.png", "image/png", png(300_000, (byte) 1));
+
+        assertThatThrownBy(() -> imageStorage.store(large)).isInstanceOf(InvalidOperationException.class);
+    }
+}
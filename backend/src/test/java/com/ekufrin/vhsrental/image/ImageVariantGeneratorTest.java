@@ -0,0 +1,55 @@
+package com.ekufrin.vhsrental.image;
+
+import com.ekufrin.vhsrental.config.ImageStorageProperties;
+import com.ekufrin.vhsrental.config.ImageVariantProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageVariantGeneratorTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void generate_WritesEveryVariantScaledToWidth() throws Exception {
+        ImageStorageProperties.Local local = new ImageStorageProperties.Local(directory.resolve("images"), 2);
+        LocalImageStore imageStore = new LocalImageStore(local);
+        ImageStorage imageStorage = new ImageStorage(new ImageStorageProperties(
+                ImageStorageProperties.Backend.LOCAL, directory.resolve("scratch"), DataSize.ofMegabytes(10), 2, Duration.ofSeconds(1), local, null
+        ), imageStore);
+        List<Object> events = new ArrayList<>();
+        ImageVariantGenerator generator = new ImageVariantGenerator(imageStore, imageStorage, new ImageVariantProperties(true, 1, 0.85f, 40_000_000), events::add);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(2000, 3000, BufferedImage.TYPE_INT_ARGB), "png", png);
+        StoredImage stored = imageStorage.store(new MockMultipartFile("image", "cover.png", "image/png", png.toByteArray()));
+
+        generator.generate(stored);
+
+        for (ImageVariant variant : ImageVariant.values()) {
+            BufferedImage rendered = ImageIO.read(imageStore.localPath(variant.fileName(stored.hash(), stored.extension())).orElseThrow().toFile());
+            assertThat(rendered.getWidth()).isEqualTo(variant.width());
+            assertThat(rendered.getHeight()).isEqualTo(variant.width() * 3 / 2);
+        }
+        assertThat(events).containsExactly(new ImageVariantsStoredEvent(stored.hash()));
+    }
+
+    @Test
+    void scale_SmallerThanTarget_KeepsSize() {
+        BufferedImage scaled = ImageVariantGenerator.scale(new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB), 480, true);
+
+        assertThat(scaled.getWidth()).isEqualTo(100);
+        assertThat(scaled.getHeight()).isEqualTo(50);
+    }
+}
@@ -0,0 +1,115 @@
+package com.ekufrin.vhsrental.image;
+
+import com.ekufrin.vhsrental.config.ImageStorageProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the S3 backend against a minimal in-process stand-in that speaks the path-style PUT, HEAD and ranged GET
+ * object calls the store uses.
+ */
+class S3ImageStoreTest {
+    private static final String BUCKET = "images";
+
+    @TempDir
+    private Path directory;
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private S3ImageStore imageStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        imageStore = new S3ImageStore(S3ImageStore.createClient(new ImageStorageProperties.S3(
+                "http://127.0.0.1:" + server.getAddress().getPort(), BUCKET, "us-east-1", "test", "test", true
+        )), BUCKET);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageStore.close();
+        server.stop(0);
+    }
+
+    @Test
+    void put_ThenReadRange_StreamsStoredBytes() throws Exception {
+        Path source = Files.writeString(directory.resolve("upload.tmp"), "0123456789");
+
+        imageStore.put("abc.png", source);
+
+        assertThat(source).doesNotExist();
+        assertThat(imageStore.size("abc.png")).hasValue(10);
+        try (InputStream input = imageStore.open("abc.png", 3, 4)) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("3456");
+        }
+    }
+
+    @Test
+    void size_MissingObject_IsEmpty() throws Exception {
+        assertThat(imageStore.size("missing.png")).isEmpty();
+        assertThat(imageStore.exists("missing.png")).isFalse();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String key = exchange.getRequestURI().getPath().substring(("/" + BUCKET + "/").length());
+        try (exchange) {
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    objects.put(key, exchange.getRequestBody().readAllBytes());
+                    exchange.getResponseHeaders().set("ETag", "\"" + key + "\"");
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "HEAD" -> {
+                    byte[] object = objects.get(key);
+                    if (object == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    exchange.getResponseHeaders().set("Content-Length", Integer.toString(object.length));
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "GET" -> {
+                    byte[] object = objects.get(key);
+                    if (object == null) {
+                        byte[] error = "<Error><Code>NoSuchKey</Code></Error>".getBytes(StandardCharsets.UTF_8);
+                        exchange.sendResponseHeaders(404, error.length);
+                        exchange.getResponseBody().write(error);
+                        return;
+                    }
+                    String range = exchange.getRequestHeaders().getFirst("Range");
+                    if (range == null) {
+                        exchange.sendResponseHeaders(200, object.length);
+                        exchange.getResponseBody().write(object);
+                        return;
+                    }
+                    String[] bounds = range.substring("bytes=".length()).split("-");
+                    int start = Integer.parseInt(bounds[0]);
+                    int end = Math.min(Integer.parseInt(bounds[1]), object.length - 1);
+                    byte[] slice = Arrays.copyOfRange(object, start, end + 1);
+                    exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + object.length);
+                    exchange.sendResponseHeaders(206, slice.length);
+                    exchange.getResponseBody().write(slice);
+                }
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.ekufrin.vhsrental.pricing;
+
+import com.ekufrin.vhsrental.config.PricingProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PricingEngineTest {
+    // 2025-01-06 is a Monday, 2025-01-10 a Friday.
+    private static final Instant MONDAY = Instant.parse("2025-01-06T10:00:00Z");
+    private static final Instant FRIDAY = Instant.parse("2025-01-10T10:00:00Z");
+    private static final double[] DAILY_PRICES = {0.75, 0.99, 1.5, 2.0, 2.45, 3.3, 4.99, 6.5, 9.99, 12.49};
+    private static final long[] BOOKED_HOURS = {1, 23, 24, 26, 48, 71, 72, 240};
+    private static final long[] LATE_HOURS = {0, 12, 24, 47, 72, 7 * 24 + 5, 30 * 24};
+
+    private PricingEngine engine(PricingProperties properties) {
+        LateFeeRule lateFeeRule = new LateFeeRule(properties);
+        return new PricingEngine(
+                List.of(new WeekendRule(properties), new LoyaltyRule(properties), lateFeeRule),
+                lateFeeRule
+        );
+    }
+
+    private PricingEngine defaultEngine() {
+        return engine(new PricingProperties(10, 0, 0, 10));
+    }
+
+    @Test
+    void priceCents_ReturnedOnTime_ChargesDailyPriceTimesBookedDays() {
+        Instant due = MONDAY.plusSeconds(3 * 86_400);
+
+        assertThat(defaultEngine().priceCents(650, MONDAY, due, due, 0)).isEqualTo(1950);
+    }
+
+    @Test
+    void priceCents_PartialDay_RoundsUpToWholeDay() {
+        Instant due = MONDAY.plusSeconds(26 * 3_600);
+
+        assertThat(defaultEngine().priceCents(500, MONDAY, due, due, 0)).isEqualTo(1000);
+    }
+
+    @Test
+    void priceCents_ReturnedLate_AddsLateFeePerFullDay() {
+        Instant due = MONDAY.plusSeconds(2 * 86_400);
+        Instant returned = due.plusSeconds(3 * 86_400 + 3_600);
+
+        // 2 days * 4.99 + 3 days late * 10% of 4.99
+        assertThat(defaultEngine().priceCents(499, MONDAY, due, returned, 0)).isEqualTo(998 + 150);
+    }
+
+    @Test
+    void priceCents_WeekendRental_AppliesSurcharge() {
+        PricingEngine engine = engine(new PricingProperties(10, 20, 0, 10));
+        Instant fridayDue = FRIDAY.plusSeconds(86_400);
+        Instant mondayDue = MONDAY.plusSeconds(86_400);
+
+        assertThat(engine.priceCents(1000, FRIDAY, fridayDue, fridayDue, 0)).isEqualTo(1200);
+        assertThat(engine.priceCents(1000, MONDAY, mondayDue, mondayDue, 0)).isEqualTo(1000);
+    }
+
+    @Test
+    void priceCents_LoyalCustomer_GetsDiscount() {
+        PricingEngine engine = engine(new PricingProperties(10, 0, 15, 5));
+        Instant due = MONDAY.plusSeconds(2 * 86_400);
+
+        assertThat(engine.usesRentalHistory()).isTrue();
+        assertThat(engine.priceCents(1000, MONDAY, due, due, 5)).isEqualTo(1700);
+        assertThat(engine.priceCents(1000, MONDAY, due, due, 4)).isEqualTo(2000);
+    }
+
+    @Test
+    void priceCents_WeekendLoyalLateReturn_AdjustsOnlyTheRental() {
+        PricingEngine engine = engine(new PricingProperties(10, 20, 10, 5));
+        Instant due = FRIDAY.plusSeconds(2 * 86_400);
+        Instant returned = due.plusSeconds(3 * 86_400);
+
+        // 2 days * 10.00, +20% weekend, -10% loyalty, then 3 days late * 10% of 10.00 on top
+        assertThat(engine.priceCents(1000, FRIDAY, due, returned, 5)).isEqualTo(2160 + 300);
+    }
+
+    @Test
+    void lateFeeCents_NotYetDue_IsZero() {
+        Instant due = MONDAY.plusSeconds(86_400);
+
+        assertThat(defaultEngine().lateFeeCents(650, due, MONDAY)).isZero();
+        assertThat(defaultEngine().lateFeeCents(650, due, due.plusSeconds(4 * 86_400))).isEqualTo(260);
+    }
+
+    @Test
+    void priceCents_DefaultRules_MatchPreviousDoubleFormula() {
+        PricingEngine engine = defaultEngine();
+        for (double dailyPrice : DAILY_PRICES) {
+            long dailyPriceCents = PricingEngine.toCents(dailyPrice);
+            for (long bookedHours : BOOKED_HOURS) {
+                Instant due = MONDAY.plusSeconds(bookedHours * 3_600);
+                for (long lateHours : LATE_HOURS) {
+                    Instant returned = due.plusSeconds(lateHours * 3_600);
+                    long previous = PricingEngine.toCents(previousCalculatePrice(dailyPrice, MONDAY, due, returned));
+
+                    long current = engine.priceCents(dailyPriceCents, MONDAY, due, returned, 0);
+
+                    // A late fee landing exactly on half a cent was rounded through doubles before, so either
+                    // neighbouring cent could come out; everywhere else the results are identical.
+                    boolean halfCentFee = Duration.between(due, returned).toDays() * dailyPriceCents % 10 == 5;
+                    String scenario = "daily=" + dailyPrice + " booked=" + bookedHours + "h late=" + lateHours + "h";
+                    if (halfCentFee) {
+                        assertThat(Math.abs(current - previous)).as(scenario).isLessThanOrEqualTo(1);
+                    } else {
+                        assertThat(current).as(scenario).isEqualTo(previous);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rental.calculatePrice as it was before PricingEngine: current title price times booked days, plus 10% of the
+     * daily price per full day late, summed in doubles and rounded to cents once.
+     */
+    private static double previousCalculatePrice(double rentalPrice, Instant rentalDate, Instant dueDate, Instant returnDate) {
+        long daysLate = Duration.between(dueDate, returnDate).toDays();
+        double lateFee = daysLate <= 0 ? 0.0 : daysLate * (rentalPrice * 0.1);
+        long rentalDays = Math.max(1, (long) Math.ceil(Duration.between(rentalDate, dueDate).toHours() / 24.0));
+        return Math.round((rentalPrice * rentalDays + lateFee) * 100.0) / 100.0;
+    }
+}
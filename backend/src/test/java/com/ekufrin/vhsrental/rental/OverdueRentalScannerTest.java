@@ -0,0 +1,78 @@
+package com.ekufrin.vhsrental.rental;
+
+import com.ekufrin.vhsrental.job.JobCheckpoint;
+import com.ekufrin.vhsrental.job.JobCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest(properties = "rental.overdue-scan.batch-size=" + OverdueRentalScannerTest.BATCH_SIZE)
+@ActiveProfiles("test")
+class OverdueRentalScannerTest {
+    static final int BATCH_SIZE = 2;
+
+    @Autowired
+    private OverdueRentalScanner scanner;
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @MockitoSpyBean
+    private RentalRepository rentalRepository;
+
+    @BeforeEach
+    void setUp() {
+        jobCheckpointRepository.deleteById(OverdueRentalScanner.JOB_NAME);
+        jdbcTemplate.update("UPDATE rentals SET accrued_late_fee = NULL WHERE accrued_late_fee IS NOT NULL");
+    }
+
+    @Test
+    @DisplayName("a run stopped after its first batch resumes from the checkpoint without rescanning committed rentals")
+    void scan_StoppedMidRun_ResumesAfterCheckpoint() {
+        int overdue = countOverdue();
+        assertThat(overdue).isGreaterThan(BATCH_SIZE);
+        // Repository spies delegate to the real proxy through their default answer.
+        Answer<?> real = mockingDetails(rentalRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(real)
+                .doThrow(new IllegalStateException("node stopped"))
+                .doAnswer(real)
+                .when(rentalRepository).findOverdueRowsAfter(any(), any(), any(), any());
+
+        assertThatThrownBy(() -> scanner.scan()).isInstanceOf(IllegalStateException.class);
+
+        JobCheckpoint interrupted = jobCheckpointRepository.findById(OverdueRentalScanner.JOB_NAME).orElseThrow();
+        assertThat(interrupted.getCursor()).isNotNull();
+        assertThat(interrupted.getLastCompletedAt()).isNull();
+        assertThat(countAccrued()).isEqualTo(BATCH_SIZE);
+
+        int resumed = scanner.scan();
+
+        assertThat(resumed).isEqualTo(overdue - BATCH_SIZE);
+        assertThat(countAccrued()).isEqualTo(overdue);
+        JobCheckpoint completed = jobCheckpointRepository.findById(OverdueRentalScanner.JOB_NAME).orElseThrow();
+        assertThat(completed.getCursor()).isNull();
+        assertThat(completed.getLastCompletedAt()).isNotNull();
+    }
+
+    private int countOverdue() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM rentals WHERE return_date IS NULL AND due_date < now()", Integer.class);
+    }
+
+    private int countAccrued() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM rentals WHERE return_date IS NULL AND accrued_late_fee IS NOT NULL", Integer.class);
+    }
+}
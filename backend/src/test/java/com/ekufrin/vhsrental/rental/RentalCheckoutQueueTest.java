@@ -0,0 +1,114 @@
+package com.ekufrin.vhsrental.rental;
+
+import com.ekufrin.vhsrental.config.HotTitleCheckoutProperties;
+import com.ekufrin.vhsrental.exception.InvalidOperationException;
+import com.ekufrin.vhsrental.exception.ServiceBusyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RentalCheckoutQueueTest {
+    private static final UUID VHS_ID = UUID.randomUUID();
+    private static final String DUE_DATE = "2099-01-01T00:00:00Z";
+
+    @Mock
+    private RentalService rentalService;
+
+    private RentalCheckoutQueue queue(int contentionThreshold) {
+        return queue(contentionThreshold, Duration.ofSeconds(5));
+    }
+
+    private RentalCheckoutQueue queue(int contentionThreshold, Duration responseTimeout) {
+        return new RentalCheckoutQueue(rentalService, new HotTitleCheckoutProperties(
+                true, contentionThreshold, 25, 100, Duration.ofMillis(200), responseTimeout
+        ));
+    }
+
+    private RentalDTO rental() {
+        return new RentalDTO(UUID.randomUUID().toString(), null, null, Instant.now(), Instant.parse(DUE_DATE), null, null);
+    }
+
+    @Test
+    void checkout_BelowThreshold_UsesDirectPath() {
+        RentalDTO rental = rental();
+        RentalCreateRequest request = new RentalCreateRequest(VHS_ID.toString(), DUE_DATE);
+        when(rentalService.createRental(request, "user@test.com")).thenReturn(rental);
+
+        assertThat(queue(8).checkout(request, "user@test.com")).isEqualTo(rental);
+        verify(rentalService, never()).createQueuedRentals(any(), anyList());
+    }
+
+    @Test
+    void checkout_HotTitle_ReturnsGrantedRentalFromWorker() {
+        RentalDTO rental = rental();
+        when(rentalService.createQueuedRentals(eq(VHS_ID), anyList()))
+                .thenAnswer(invocation -> List.of(CheckoutOutcome.granted(rental)));
+
+        RentalDTO result = queue(0).checkout(new RentalCreateRequest(VHS_ID.toString(), DUE_DATE), "user@test.com");
+
+        assertThat(result).isEqualTo(rental);
+        verify(rentalService, never()).createRental(any(), anyString());
+    }
+
+    @Test
+    void checkout_HotTitle_RethrowsRejection() {
+        when(rentalService.createQueuedRentals(eq(VHS_ID), anyList()))
+                .thenAnswer(invocation -> List.of(CheckoutOutcome.rejected(
+                        new InvalidOperationException("VHS with id: " + VHS_ID + " is not currently available for rental")
+                )));
+
+        assertThatThrownBy(() -> queue(0).checkout(new RentalCreateRequest(VHS_ID.toString(), DUE_DATE), "user@test.com"))
+                .isInstanceOf(InvalidOperationException.class)
+                .hasMessageContaining("not currently available");
+    }
+
+    @Test
+    void checkout_TimedOutWhileQueued_IsNeverGranted() throws Exception {
+        RentalCreateRequest first = new RentalCreateRequest(VHS_ID.toString(), DUE_DATE);
+        RentalCreateRequest abandoned = new RentalCreateRequest(VHS_ID.toString(), "2099-02-01T00:00:00Z");
+        List<List<RentalCreateRequest>> processed = new CopyOnWriteArrayList<>();
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        when(rentalService.createQueuedRentals(eq(VHS_ID), anyList())).thenAnswer(invocation -> {
+            List<QueuedCheckout> batch = invocation.getArgument(1);
+            processed.add(batch.stream().map(QueuedCheckout::request).toList());
+            firstBatchStarted.countDown();
+            Thread.sleep(600);
+            return batch.stream().map(_ -> CheckoutOutcome.granted(rental())).toList();
+        });
+        RentalCheckoutQueue queue = queue(0, Duration.ofMillis(200));
+
+        CompletableFuture<RentalDTO> firstResult = CompletableFuture.supplyAsync(() -> queue.checkout(first, "a@test.com"));
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> queue.checkout(abandoned, "b@test.com"))
+                .isInstanceOf(ServiceBusyException.class)
+                .hasMessageContaining("timed out");
+        // The first checkout was already in a running batch when its own timeout passed, so it waits for the grant.
+        assertThat(firstResult.get(5, TimeUnit.SECONDS)).isNotNull();
+        verify(rentalService, after(500).times(1)).createQueuedRentals(eq(VHS_ID), anyList());
+        assertThat(processed).containsExactly(List.of(first));
+    }
+}
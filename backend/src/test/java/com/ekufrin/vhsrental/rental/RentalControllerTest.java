@@ -1,5 +1,6 @@
 package com.ekufrin.vhsrental.rental;
 
+import com.ekufrin.vhsrental.config.CursorSlice;
 import com.ekufrin.vhsrental.genre.GenreDTO;
 import com.ekufrin.vhsrental.security.AuthService;
 import com.ekufrin.vhsrental.security.CustomUserDetailsService;
@@ -50,6 +51,9 @@ class RentalControllerTest {
     @MockitoBean
     private RentalService rentalService;
 
+    @MockitoBean
+    private RentalCheckoutQueue rentalCheckoutQueue;
+
     private VHSDTO sampleVhs() {
         return VHSDTO.builder()
                 .id(UUID.randomUUID())
@@ -79,7 +83,7 @@ class RentalControllerTest {
     @WithMockUser(username = "user@example.com")
     void createRental_ReturnsOk() throws Exception {
         RentalDTO rentalDTO = sampleRental();
-        given(rentalService.createRental(ArgumentMatchers.any(), ArgumentMatchers.anyString())).willReturn(rentalDTO);
+        given(rentalCheckoutQueue.checkout(ArgumentMatchers.any(), ArgumentMatchers.anyString())).willReturn(rentalDTO);
 
         mockMvc.perform(post("/rentals")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -88,6 +92,58 @@ class RentalControllerTest {
                 .andExpect(jsonPath("$.data.vhs.title").value("Sample VHS"));
     }
 
+    @Test
+    @DisplayName("batch rental returns per-item results")
+    @WithMockUser(username = "user@example.com")
+    void createRentals_ReturnsPerItemResults() throws Exception {
+        RentalDTO rentalDTO = sampleRental();
+        String missingVhsId = UUID.randomUUID().toString();
+        given(rentalService.createRentals(ArgumentMatchers.anyList(), ArgumentMatchers.anyString())).willReturn(List.of(
+                new RentalBatchItemResult(0, rentalDTO.vhs().getId().toString(), true, rentalDTO, null),
+                new RentalBatchItemResult(1, missingVhsId, false, null, "VHS not found with id: '" + missingVhsId + "'")
+        ));
+
+        mockMvc.perform(post("/rentals/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": ["
+                                + "{\"vhsId\": \"" + rentalDTO.vhs().getId() + "\", \"dueDate\": \"2099-01-04T10:00:00Z\"},"
+                                + "{\"vhsId\": \"" + missingVhsId + "\", \"dueDate\": \"2099-01-04T10:00:00Z\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].success").value(true))
+                .andExpect(jsonPath("$.data[0].rental.vhs.title").value("Sample VHS"))
+                .andExpect(jsonPath("$.data[1].success").value(false));
+    }
+
+    @Test
+    @DisplayName("batch rental with empty cart returns 400")
+    @WithMockUser(username = "user@example.com")
+    void createRentals_EmptyItems_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/rentals/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("quote returns line prices and cart total in cents")
+    @WithMockUser(username = "user@example.com")
+    void quoteRentals_ReturnsTotal() throws Exception {
+        given(rentalService.quote(ArgumentMatchers.anyList())).willReturn(new RentalQuoteDTO(
+                List.of(new RentalQuoteLineDTO("a", 3, 990, 9.9), new RentalQuoteLineDTO("b", 1, 450, 4.5)),
+                1440,
+                14.4
+        ));
+
+        mockMvc.perform(post("/rentals/quote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": ["
+                                + "{\"vhsId\": \"a\", \"rentalPrice\": 3.3, \"dueDate\": \"2099-01-04T10:00:00Z\"},"
+                                + "{\"vhsId\": \"b\", \"rentalPrice\": 4.5, \"dueDate\": \"2099-01-02T10:00:00Z\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalCents").value(1440))
+                .andExpect(jsonPath("$.data.items[0].rentalDays").value(3));
+    }
+
     @Test
     @DisplayName("finish rental returns 200 OK and sets return date")
     @WithMockUser(username = "user@example.com")
@@ -109,6 +165,25 @@ class RentalControllerTest {
                 .andExpect(jsonPath("$.data.price").value(9.9));
     }
 
+    @Test
+    @DisplayName("batch finish returns per-rental results")
+    @WithMockUser(username = "user@example.com")
+    void finishRentals_ReturnsPerRentalResults() throws Exception {
+        RentalDTO rental = sampleRental();
+        UUID foreignRentalId = UUID.randomUUID();
+        given(rentalService.finishRentals(ArgumentMatchers.anyList(), ArgumentMatchers.anyString())).willReturn(List.of(
+                new RentalBatchItemResult(0, rental.id(), true, rental, null),
+                new RentalBatchItemResult(1, foreignRentalId.toString(), false, null, "You are not authorized to finish this rental")
+        ));
+
+        mockMvc.perform(patch("/rentals/finish")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rentalIds\": [\"" + rental.id() + "\", \"" + foreignRentalId + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].success").value(true))
+                .andExpect(jsonPath("$.data[1].error").value("You are not authorized to finish this rental"));
+    }
+
     @Test
     @DisplayName("get all rentals returns page")
     @WithMockUser(username = "user@example.com")
@@ -121,6 +196,35 @@ class RentalControllerTest {
                 .andExpect(jsonPath("$.data.content[0].vhs.title").value("Sample VHS"));
     }
 
+    @Test
+    @DisplayName("scroll rentals returns slice with next cursor")
+    @WithMockUser(username = "user@example.com")
+    void scrollRentals_ReturnsSlice() throws Exception {
+        CursorSlice<RentalDTO> slice = new CursorSlice<>(List.of(sampleRental()), "next-cursor", true);
+        given(rentalService.getRentalsSlice("abc", 1)).willReturn(slice);
+
+        mockMvc.perform(get("/rentals/scroll").param("cursor", "abc").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].vhs.title").value("Sample VHS"))
+                .andExpect(jsonPath("$.data.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.data.hasNext").value(true))
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("overdue summary returns count and accrued total")
+    @WithMockUser(username = "user@example.com")
+    void getOverdueSummary_ReturnsTotals() throws Exception {
+        given(rentalService.getOverdueSummary()).willReturn(
+                new OverdueSummaryDTO(4, 12.5, Instant.parse("2025-03-01T00:00:00Z"))
+        );
+
+        mockMvc.perform(get("/rentals/overdue/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.overdueRentals").value(4))
+                .andExpect(jsonPath("$.data.totalAccruedLateFee").value(12.5));
+    }
+
     @Test
     @DisplayName("get rental by id returns rental")
     @WithMockUser(username = "user@example.com")
@@ -0,0 +1,138 @@
+package com.ekufrin.vhsrental.rental;
+
+import com.ekufrin.vhsrental.config.RentalPartitionProperties;
+import com.ekufrin.vhsrental.review.Review;
+import com.ekufrin.vhsrental.review.ReviewRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RentalPartitionMaintenanceTest {
+    // Seed rentals from V999: the first is returned and reviewed, the fifth is still open.
+    private static final UUID RETURNED_RENTAL = UUID.fromString("75555555-eeee-4e5e-c000-000000000001");
+    private static final UUID RETURNED_RENTAL_REVIEW = UUID.fromString("76666666-ffff-4f6f-d000-000000000001");
+    private static final UUID OPEN_RENTAL = UUID.fromString("75555555-eeee-4e5e-c000-000000000005");
+
+    @Autowired
+    private RentalPartitionMaintenance maintenance;
+    @Autowired
+    private RentalPartitionProperties properties;
+    @Autowired
+    private RentalRepository rentalRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("maintenance recreates the furthest upcoming monthly partition")
+    void runMaintenance_MissingFuturePartition_CreatesIt() {
+        YearMonth furthest = YearMonth.now(ZoneOffset.UTC).plusMonths(properties.monthsAhead());
+        String partition = RentalPartitionMaintenance.partitionName(furthest);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+
+        maintenance.runMaintenance();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition)).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT last_completed_at IS NOT NULL FROM job_checkpoints WHERE job_name = ?",
+                Boolean.class, RentalPartitionMaintenance.JOB_NAME)).isTrue();
+    }
+
+    @Test
+    @DisplayName("a month whose rows already sit in the default partition is reported and the run is not checkpointed")
+    void runMaintenance_RowsInDefaultPartition_NotCheckpointed() {
+        YearMonth furthest = YearMonth.now(ZoneOffset.UTC).plusMonths(properties.monthsAhead());
+        String partition = RentalPartitionMaintenance.partitionName(furthest);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+        UUID stray = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO rentals (id, vhs_id, user_id, rental_date, due_date, daily_price_cents)
+                SELECT ?, vhs_id, user_id, ?, ?, daily_price_cents FROM rentals WHERE id = ?
+                """, stray, Timestamp.valueOf(furthest.atDay(2).atStartOfDay()),
+                Timestamp.valueOf(furthest.atDay(9).atStartOfDay()), OPEN_RENTAL);
+        jdbcTemplate.update("DELETE FROM job_checkpoints WHERE job_name = ?", RentalPartitionMaintenance.JOB_NAME);
+
+        try {
+            maintenance.runMaintenance();
+
+            assertThat(partitionOf(stray)).isEqualTo("rentals_hot_default");
+            assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, partition)).isTrue();
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_checkpoints WHERE job_name = ?",
+                    Integer.class, RentalPartitionMaintenance.JOB_NAME)).isZero();
+        } finally {
+            jdbcTemplate.update("DELETE FROM rentals WHERE id = ?", stray);
+            maintenance.runMaintenance();
+        }
+    }
+
+    @Test
+    @DisplayName("old finished rentals move to the archive and stay readable together with their reviews")
+    void runMaintenance_OldFinishedRental_ArchivedAndStillReadable() {
+        maintenance.runMaintenance();
+
+        assertThat(partitionOf(RETURNED_RENTAL)).isEqualTo("rentals_archive");
+        assertThat(partitionOf(OPEN_RENTAL)).isNotEqualTo("rentals_archive");
+
+        Rental archived = rentalRepository.findById(RETURNED_RENTAL).orElseThrow();
+        assertThat(archived.isArchived()).isTrue();
+        assertThat(archived.getReturnDate()).isNotNull();
+
+        UUID reviewedRentalId = transactionTemplate.execute(_ -> {
+            Review review = reviewRepository.findByIdAndIncludeRental(RETURNED_RENTAL_REVIEW).orElseThrow();
+            return review.getRental().getId();
+        });
+        assertThat(reviewedRentalId).isEqualTo(RETURNED_RENTAL);
+    }
+
+    @Test
+    @DisplayName("reviews cannot reference a rental that does not exist")
+    void insertReview_UnknownRental_Rejected() {
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO reviews (id, rental_id, rating, comment) VALUES (?, ?, 4.0, 'orphan')",
+                UUID.randomUUID(), UUID.randomUUID()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("a rental id cannot be reused in another partition")
+    void insertRental_DuplicateIdInOtherPartition_Rejected() {
+        assertThatThrownBy(() -> jdbcTemplate.update("""
+                INSERT INTO rentals (id, vhs_id, user_id, rental_date, due_date, daily_price_cents)
+                SELECT id, vhs_id, user_id, rental_date - INTERVAL '400 days', due_date, daily_price_cents
+                FROM rentals WHERE id = ?
+                """, OPEN_RENTAL))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("a rental that still has a review cannot be deleted")
+    void deleteRental_Reviewed_Rejected() {
+        assertThatThrownBy(() -> jdbcTemplate.update("DELETE FROM rentals WHERE id = ?", RETURNED_RENTAL))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(rentalRepository.findById(RETURNED_RENTAL)).isPresent();
+    }
+
+    private String partitionOf(UUID rentalId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM rentals WHERE id = ?", String.class, rentalId);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ekufrin.vhsrental.rental;
+
+import com.ekufrin.vhsrental.exception.InvalidOperationException;
+import com.ekufrin.vhsrental.genre.GenreRepository;
+import com.ekufrin.vhsrental.support.CatalogTestFixture;
+import com.ekufrin.vhsrental.vhs.VHS;
+import com.ekufrin.vhsrental.vhs.VHSRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RentalServiceBatchTest {
+    private static final String USER = "test.alice@example.com";
+    private static final String INVALID_DUE_DATE = "2099-13-45T00:00:00Z";
+
+    @Autowired
+    private RentalService rentalService;
+    @Autowired
+    private VHSRepository vhsRepository;
+    @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CatalogTestFixture catalog;
+    private VHS vhs;
+    private String dueDate;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new CatalogTestFixture(vhsRepository, genreRepository, jdbcTemplate);
+        vhs = catalog.createTape("Batch Test Tape", 2);
+        dueDate = Instant.now().plus(3, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS).toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalog.cleanUp();
+    }
+
+    @Test
+    @DisplayName("an unparsable due date rejects only its own queued checkout")
+    void createQueuedRentals_InvalidDueDate_RejectsOnlyThatCheckout() {
+        List<CheckoutOutcome> outcomes = rentalService.createQueuedRentals(vhs.getId(), List.of(
+                checkout(INVALID_DUE_DATE),
+                checkout(dueDate)
+        ));
+
+        assertThat(outcomes.get(0).error())
+                .isInstanceOf(InvalidOperationException.class)
+                .hasMessageContaining(INVALID_DUE_DATE);
+        assertThat(outcomes.get(1).rental()).isNotNull();
+        assertThat(vhsRepository.findById(vhs.getId()).orElseThrow().getAvailableCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("an unparsable due date fails only its own cart item")
+    void createRentals_InvalidDueDate_FailsOnlyThatItem() {
+        List<RentalBatchItemResult> results = rentalService.createRentals(List.of(
+                new RentalCreateRequest(vhs.getId().toString(), dueDate),
+                new RentalCreateRequest(vhs.getId().toString(), INVALID_DUE_DATE)
+        ), USER);
+
+        assertThat(results.get(0).success()).isTrue();
+        assertThat(results.get(1).success()).isFalse();
+        assertThat(results.get(1).error()).contains(INVALID_DUE_DATE);
+        assertThat(vhsRepository.findById(vhs.getId()).orElseThrow().getAvailableCount()).isEqualTo(1);
+    }
+
+    private QueuedCheckout checkout(String due) {
+        return new QueuedCheckout(new RentalCreateRequest(vhs.getId().toString(), due), USER);
+    }
+}
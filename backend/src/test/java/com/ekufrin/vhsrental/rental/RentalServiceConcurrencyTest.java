@@ -0,0 +1,71 @@
+package com.ekufrin.vhsrental.rental;
+
+import com.ekufrin.vhsrental.exception.InvalidOperationException;
+import com.ekufrin.vhsrental.genre.GenreRepository;
+import com.ekufrin.vhsrental.support.CatalogTestFixture;
+import com.ekufrin.vhsrental.support.ConcurrentCalls;
+import com.ekufrin.vhsrental.vhs.VHS;
+import com.ekufrin.vhsrental.vhs.VHSRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RentalServiceConcurrencyTest {
+    private static final int STOCK = 3;
+    private static final int CONCURRENT_REQUESTS = 24;
+    private static final List<String> USERS = List.of(
+            "test.alice@example.com",
+            "test.bob@example.com",
+            "test.carol@example.com"
+    );
+
+    @Autowired
+    private RentalService rentalService;
+    @Autowired
+    private VHSRepository vhsRepository;
+    @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CatalogTestFixture catalog;
+    private VHS vhs;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new CatalogTestFixture(vhsRepository, genreRepository, jdbcTemplate);
+        vhs = catalog.createTape("Concurrency Test Tape", STOCK);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalog.cleanUp();
+    }
+
+    @Test
+    @DisplayName("concurrent checkouts of one title never oversell and never fail with serialization errors")
+    void createRental_ConcurrentRequests_GrantsExactlyStock() throws Exception {
+        String dueDate = Instant.now().plus(3, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS).toString();
+
+        ConcurrentCalls.Outcome outcome = ConcurrentCalls.run(CONCURRENT_REQUESTS, InvalidOperationException.class, i ->
+                rentalService.createRental(new RentalCreateRequest(vhs.getId().toString(), dueDate), USERS.get(i % USERS.size())));
+
+        assertThat(outcome.unexpected()).isEmpty();
+        assertThat(outcome.succeeded()).isEqualTo(STOCK);
+        assertThat(outcome.rejected()).isEqualTo(CONCURRENT_REQUESTS - STOCK);
+        assertThat(vhsRepository.findById(vhs.getId()).orElseThrow().getAvailableCount()).isZero();
+    }
+}
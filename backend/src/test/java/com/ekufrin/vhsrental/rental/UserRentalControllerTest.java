@@ -0,0 +1,71 @@
+package com.ekufrin.vhsrental.rental;
+
+import com.ekufrin.vhsrental.security.CustomUserDetailsService;
+import com.ekufrin.vhsrental.security.JWTUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = UserRentalController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class UserRentalControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private JWTUtil jwtUtil;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private RentalService rentalService;
+
+    @Test
+    @DisplayName("get my overdue rentals returns projected rows")
+    @WithMockUser(username = "user@example.com")
+    void getMyRentals_Overdue_ReturnsSlice() throws Exception {
+        UserRentalDTO rental = new UserRentalDTO(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                "Late Tape",
+                "Drama",
+                Instant.parse("2025-01-01T10:00:00Z"),
+                Instant.parse("2025-01-04T10:00:00Z"),
+                null,
+                null
+        );
+        given(rentalService.getUserRentals(ArgumentMatchers.eq("user@example.com"), ArgumentMatchers.eq(RentalStatusFilter.OVERDUE), ArgumentMatchers.any()))
+                .willReturn(new SliceImpl<>(List.of(rental), PageRequest.of(0, 20), false));
+
+        mockMvc.perform(get("/users/me/rentals").param("status", "overdue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].vhsTitle").value("Late Tape"));
+    }
+
+    @Test
+    @DisplayName("get my rentals with unknown status returns 400")
+    @WithMockUser(username = "user@example.com")
+    void getMyRentals_UnknownStatus_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/users/me/rentals").param("status", "lost"))
+                .andExpect(status().isBadRequest());
+    }
+}
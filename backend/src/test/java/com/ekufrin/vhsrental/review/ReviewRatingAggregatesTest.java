@@ -0,0 +1,148 @@
+package com.ekufrin.vhsrental.review;
+
+import com.ekufrin.vhsrental.genre.GenreRepository;
+import com.ekufrin.vhsrental.rental.Rental;
+import com.ekufrin.vhsrental.rental.RentalRepository;
+import com.ekufrin.vhsrental.support.CatalogTestFixture;
+import com.ekufrin.vhsrental.user.User;
+import com.ekufrin.vhsrental.user.UserRepository;
+import com.ekufrin.vhsrental.vhs.VHS;
+import com.ekufrin.vhsrental.vhs.VHSRatingDTO;
+import com.ekufrin.vhsrental.vhs.VHSRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReviewRatingAggregatesTest {
+    private static final String USER = "test.alice@example.com";
+
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private RentalRepository rentalRepository;
+    @Autowired
+    private VHSRepository vhsRepository;
+    @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CatalogTestFixture catalog;
+    private VHS vhs;
+    private final List<UUID> rentalIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        catalog = new CatalogTestFixture(vhsRepository, genreRepository, jdbcTemplate);
+        vhs = catalog.createTape("Rating Aggregates Tape", 3);
+        User user = userRepository.findByEmail(USER).orElseThrow();
+        Instant rentedAt = Instant.now().minus(5, ChronoUnit.DAYS);
+        for (int i = 0; i < 3; i++) {
+            Rental rental = rentalRepository.save(Rental.builder()
+                    .vhs(vhs)
+                    .user(user)
+                    .rentalDate(rentedAt)
+                    .dueDate(rentedAt.plus(2, ChronoUnit.DAYS))
+                    .returnDate(rentedAt.plus(1, ChronoUnit.DAYS))
+                    .dailyPriceCents(200L)
+                    .priceCents(200L)
+                    .build());
+            rentalIds.add(rental.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalog.cleanUp();
+    }
+
+    @Test
+    @DisplayName("create, update across star buckets and delete keep the aggregates equal to the reviews")
+    void reviewLifecycle_KeepsAggregatesConsistent() {
+        ReviewDTO first = reviewService.createReview(new ReviewCreateRequest(rentalIds.get(0), 4.2, "good"), USER);
+        reviewService.createReview(new ReviewCreateRequest(rentalIds.get(1), 1.1, null), USER);
+        reviewService.createReview(new ReviewCreateRequest(rentalIds.get(2), 2.2, null), USER);
+        assertAggregatesMatchReviews();
+        assertThat(summary().count()).isEqualTo(3);
+        assertThat(summary().sum()).isEqualByComparingTo("7.50");
+        assertThat(summary().histogram()).containsExactly(
+                Map.entry(1, 1), Map.entry(2, 1), Map.entry(3, 0), Map.entry(4, 1), Map.entry(5, 0));
+
+        reviewService.updateReview(first.id(), new ReviewUpdateRequest(2.4, null), USER);
+        assertAggregatesMatchReviews();
+        assertThat(summary().sum()).isEqualByComparingTo("5.70");
+        assertThat(summary().histogram()).containsExactly(
+                Map.entry(1, 1), Map.entry(2, 2), Map.entry(3, 0), Map.entry(4, 0), Map.entry(5, 0));
+
+        reviewService.deleteReview(first.id(), USER);
+        assertAggregatesMatchReviews();
+        assertThat(summary().count()).isEqualTo(2);
+        assertThat(summary().sum()).isEqualByComparingTo("3.30");
+        assertThat(summary().average()).isEqualTo(1.65);
+    }
+
+    @Test
+    @DisplayName("adding and removing the same ratings returns the sum to exactly zero")
+    void createThenDeleteAll_SumBackToZero() {
+        List<UUID> reviewIds = new ArrayList<>();
+        double[] ratings = {1.1, 2.2, 3.3};
+        for (int i = 0; i < ratings.length; i++) {
+            reviewIds.add(reviewService.createReview(new ReviewCreateRequest(rentalIds.get(i), ratings[i], null), USER).id());
+        }
+        reviewIds.forEach(id -> reviewService.deleteReview(id, USER));
+
+        VHSRatingDTO rating = summary();
+        assertThat(rating.count()).isZero();
+        assertThat(rating.sum()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(rating.average()).isNull();
+        assertThat(rating.histogram().values()).containsOnly(0);
+    }
+
+    private VHSRatingDTO summary() {
+        return reviewService.getRatingSummary(vhs.getId());
+    }
+
+    private void assertAggregatesMatchReviews() {
+        Map<String, Object> expected = jdbcTemplate.queryForMap("""
+                SELECT COUNT(*) AS rating_count,
+                       COALESCE(SUM(ROUND(CAST(rv.rating AS NUMERIC), 2)), 0) AS rating_sum,
+                       COUNT(*) FILTER (WHERE ROUND(CAST(rv.rating AS NUMERIC)) <= 1) AS rating_1,
+                       COUNT(*) FILTER (WHERE ROUND(CAST(rv.rating AS NUMERIC)) = 2) AS rating_2,
+                       COUNT(*) FILTER (WHERE ROUND(CAST(rv.rating AS NUMERIC)) = 3) AS rating_3,
+                       COUNT(*) FILTER (WHERE ROUND(CAST(rv.rating AS NUMERIC)) = 4) AS rating_4,
+                       COUNT(*) FILTER (WHERE ROUND(CAST(rv.rating AS NUMERIC)) >= 5) AS rating_5
+                FROM reviews rv
+                INNER JOIN rentals r ON r.id = rv.rental_id
+                WHERE r.vhs_id = ?
+                """, vhs.getId());
+        Map<String, Object> actual = jdbcTemplate.queryForMap(
+                "SELECT rating_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5 FROM vhs WHERE id = ?",
+                vhs.getId());
+
+        assertThat(((Number) actual.get("rating_count")).longValue()).isEqualTo(((Number) expected.get("rating_count")).longValue());
+        assertThat((BigDecimal) actual.get("rating_sum")).isEqualByComparingTo((BigDecimal) expected.get("rating_sum"));
+        for (int star = 1; star <= 5; star++) {
+            String column = "rating_" + star;
+            assertThat(((Number) actual.get(column)).longValue()).as(column).isEqualTo(((Number) expected.get(column)).longValue());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ekufrin.vhsrental.review;
+
+import com.ekufrin.vhsrental.exception.ForbiddenOperationException;
+import com.ekufrin.vhsrental.genre.GenreRepository;
+import com.ekufrin.vhsrental.rental.RentalCreateRequest;
+import com.ekufrin.vhsrental.rental.RentalService;
+import com.ekufrin.vhsrental.support.CatalogTestFixture;
+import com.ekufrin.vhsrental.support.ConcurrentCalls;
+import com.ekufrin.vhsrental.vhs.VHS;
+import com.ekufrin.vhsrental.vhs.VHSRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReviewServiceConcurrencyTest {
+    private static final int CONCURRENT_REQUESTS = 8;
+    private static final String OWNER = "test.alice@example.com";
+    private static final String OTHER_USER = "test.bob@example.com";
+
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private RentalService rentalService;
+    @Autowired
+    private VHSRepository vhsRepository;
+    @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CatalogTestFixture catalog;
+    private VHS vhs;
+    private UUID rentalId;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new CatalogTestFixture(vhsRepository, genreRepository, jdbcTemplate);
+        vhs = catalog.createTape("Review Concurrency Tape", 1);
+        String dueDate = Instant.now().plus(3, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS).toString();
+        rentalId = UUID.fromString(rentalService.createRental(new RentalCreateRequest(vhs.getId().toString(), dueDate), OWNER).id());
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalog.cleanUp();
+    }
+
+    @Test
+    @DisplayName("concurrent reviews of one rental create exactly one review and count it once")
+    void createReview_ConcurrentDuplicates_CreatesExactlyOne() throws Exception {
+        ConcurrentCalls.Outcome outcome = ConcurrentCalls.run(CONCURRENT_REQUESTS, ForbiddenOperationException.class, _ ->
+                reviewService.createReview(new ReviewCreateRequest(rentalId, 4.0, "Rewind before returning"), OWNER));
+
+        assertThat(outcome.unexpected()).isEmpty();
+        assertThat(outcome.succeeded()).isEqualTo(1);
+        assertThat(outcome.rejected()).isEqualTo(CONCURRENT_REQUESTS - 1);
+        VHS reloaded = vhsRepository.findById(vhs.getId()).orElseThrow();
+        assertThat(reloaded.getRatingCount()).isEqualTo(1);
+        assertThat(reloaded.getRating4()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("reviewing someone else's rental is forbidden and inserts nothing")
+    void createReview_NotOwner_IsForbidden() {
+        assertThatThrownBy(() -> reviewService.createReview(new ReviewCreateRequest(rentalId, 5.0, null), OTHER_USER))
+                .isInstanceOf(ForbiddenOperationException.class)
+                .hasMessageContaining("not allowed");
+
+        assertThat(vhsRepository.findRatingById(vhs.getId()).orElseThrow().count()).isZero();
+    }
+}
@@ -0,0 +1,51 @@
+package com.ekufrin.vhsrental.support;
+
+import com.ekufrin.vhsrental.genre.Genre;
+import com.ekufrin.vhsrental.genre.GenreRepository;
+import com.ekufrin.vhsrental.status.Status;
+import com.ekufrin.vhsrental.vhs.VHS;
+import com.ekufrin.vhsrental.vhs.VHSRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Throwaway titles for integration tests against the shared test database. {@link #cleanUp} removes every title it
+ * created together with the rentals and reviews made for it, so tests leave the seed data as they found it.
+ */
+@RequiredArgsConstructor
+public class CatalogTestFixture {
+    private final VHSRepository vhsRepository;
+    private final GenreRepository genreRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<UUID> created = new ArrayList<>();
+
+    public VHS createTape(String title, int stock) {
+        Genre genre = genreRepository.findAll(PageRequest.of(0, 1)).getContent().getFirst();
+        VHS vhs = vhsRepository.save(VHS.builder()
+                .title(title)
+                .releaseDate(Instant.parse("2020-01-01T00:00:00Z"))
+                .genre(genre)
+                .rentalPrice(2.0)
+                .stockLevel(stock)
+                .availableCount(stock)
+                .status(Status.AVAILABLE)
+                .build());
+        created.add(vhs.getId());
+        return vhs;
+    }
+
+    public void cleanUp() {
+        for (UUID id : created) {
+            jdbcTemplate.update("DELETE FROM reviews WHERE rental_id IN (SELECT id FROM rentals WHERE vhs_id = ?)", id);
+            jdbcTemplate.update("DELETE FROM rentals WHERE vhs_id = ?", id);
+            jdbcTemplate.update("DELETE FROM vhs WHERE id = ?", id);
+        }
+        created.clear();
+    }
+}
@@ -0,0 +1,65 @@
+package com.ekufrin.vhsrental.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires the same call from many threads at once, released together by a latch, and tallies how each one ended.
+ */
+public final class ConcurrentCalls {
+
+    private ConcurrentCalls() {
+    }
+
+    /**
+     * Runs {@code call} once per thread. Calls that throw {@code rejection} count as rejected; any other exception is
+     * collected in {@link Outcome#unexpected()}.
+     */
+    public static Outcome run(int threads, Class<? extends RuntimeException> rejection, Call call) throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        call.run(index);
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        if (rejection.isInstance(e)) {
+                            rejected.incrementAndGet();
+                        } else {
+                            synchronized (unexpected) {
+                                unexpected.add(e);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return new Outcome(succeeded.get(), rejected.get(), unexpected);
+    }
+
+    @FunctionalInterface
+    public interface Call {
+        void run(int index);
+    }
+
+    public record Outcome(int succeeded, int rejected, List<Throwable> unexpected) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.ekufrin.vhsrental.vhs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportRecordReaderTest {
+
+    @Test
+    void nextCsvRecord_QuotedFields_KeepCommasQuotesAndLineBreaks() throws Exception {
+        ImportRecordReader reader = new ImportRecordReader(new StringReader(
+                "title,genre\r\n\"Lock, Stock\",Crime\n\"The \"\"Thing\"\"\nDirector's Cut\",Horror"
+        ), 1024);
+
+        assertThat(reader.nextCsvRecord()).containsExactly("title", "genre");
+        assertThat(reader.nextCsvRecord()).containsExactly("Lock, Stock", "Crime");
+        assertThat(reader.nextCsvRecord()).containsExactly("The \"Thing\"\nDirector's Cut", "Horror");
+        assertThat(reader.nextCsvRecord()).isNull();
+    }
+
+    @Test
+    void nextCsvRecord_UnterminatedQuote_StopsAtLengthLimit() {
+        ImportRecordReader reader = new ImportRecordReader(new StringReader("\"" + "x".repeat(100)), 64);
+
+        assertThatThrownBy(reader::nextCsvRecord)
+                .isInstanceOf(ImportRecordReader.MalformedRecordException.class)
+                .hasMessageContaining("64");
+    }
+
+    @Test
+    void nextLine_SplitsOnLineFeedsAndDropsCarriageReturns() throws Exception {
+        ImportRecordReader reader = new ImportRecordReader(new StringReader("{\"a\":1}\r\n\n{\"b\":2}"), 1024);
+
+        assertThat(List.of(reader.nextLine(), reader.nextLine(), reader.nextLine())).containsExactly("{\"a\":1}", "", "{\"b\":2}");
+        assertThat(reader.nextLine()).isNull();
+    }
+}
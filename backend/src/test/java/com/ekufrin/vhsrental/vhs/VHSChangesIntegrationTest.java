@@ -0,0 +1,146 @@
+package com.ekufrin.vhsrental.vhs;
+
+import com.ekufrin.vhsrental.config.CatalogChangeEvent;
+import com.ekufrin.vhsrental.genre.GenreRepository;
+import com.ekufrin.vhsrental.support.CatalogTestFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VHSChangesIntegrationTest {
+    @Autowired
+    private VHSService vhsService;
+    @Autowired
+    private VHSRepository vhsRepository;
+    @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    private CatalogTestFixture catalog;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new CatalogTestFixture(vhsRepository, genreRepository, jdbcTemplate);
+        token = drain(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalog.cleanUp();
+    }
+
+    @Test
+    @DisplayName("insert, update and delete each show up once and the returned token moves past them")
+    void getChanges_InsertUpdateDelete_FollowsToken() {
+        VHS vhs = saveVHS("Delta Sync Tape");
+
+        VHSChangesDTO inserted = vhsService.getChanges(token, 100);
+        assertThat(inserted.vhs()).extracting(VHSDTO::getId).containsExactly(vhs.getId());
+        assertThat(inserted.deleted()).isEmpty();
+        assertThat(inserted.hasMore()).isFalse();
+
+        jdbcTemplate.update("UPDATE vhs SET title = 'Delta Sync Tape II' WHERE id = ?", vhs.getId());
+        VHSChangesDTO updated = vhsService.getChanges(inserted.token(), 100);
+        assertThat(updated.vhs()).extracting(VHSDTO::getTitle).containsExactly("Delta Sync Tape II");
+
+        jdbcTemplate.update("DELETE FROM vhs WHERE id = ?", vhs.getId());
+        VHSChangesDTO deleted = vhsService.getChanges(updated.token(), 100);
+        assertThat(deleted.vhs()).isEmpty();
+        assertThat(deleted.deleted()).containsExactly(new CatalogTombstoneDTO(CatalogChangeEvent.VHS, vhs.getId()));
+
+        VHSChangesDTO caughtUp = vhsService.getChanges(deleted.token(), 100);
+        assertThat(caughtUp.vhs()).isEmpty();
+        assertThat(caughtUp.deleted()).isEmpty();
+        assertThat(caughtUp.token()).isEqualTo(deleted.token());
+    }
+
+    @Test
+    @DisplayName("stock reservations do not count as catalog changes")
+    void getChanges_AvailableCountOnly_NoChange() {
+        VHS vhs = saveVHS("Reserved Tape");
+        String afterInsert = vhsService.getChanges(token, 100).token();
+
+        jdbcTemplate.update("UPDATE vhs SET available_count = available_count - 1 WHERE id = ?", vhs.getId());
+
+        VHSChangesDTO changes = vhsService.getChanges(afterInsert, 100);
+        assertThat(changes.vhs()).isEmpty();
+        assertThat(changes.token()).isEqualTo(afterInsert);
+    }
+
+    @Test
+    @DisplayName("titles come back in write order, not id order")
+    void getChanges_TwoWrites_KeepsWriteOrder() {
+        List<VHS> tapes = new ArrayList<>(List.of(saveVHS("Order Tape A"), saveVHS("Order Tape B")));
+        tapes.sort(Comparator.comparing(VHS::getId).reversed());
+        String afterInsert = drain(token);
+
+        for (VHS tape : tapes) {
+            jdbcTemplate.update("UPDATE vhs SET title = title || ' (rev)' WHERE id = ?", tape.getId());
+        }
+
+        VHSChangesDTO changes = vhsService.getChanges(afterInsert, 100);
+        assertThat(changes.vhs()).extracting(VHSDTO::getId)
+                .containsExactly(tapes.get(0).getId(), tapes.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("a change committed while an older transaction is still open is held back until that one ends")
+    void getChanges_OlderTransactionOpen_HoldsBackNewerCommit() throws Exception {
+        VHS older = saveVHS("Slow Writer Tape");
+        VHS newer = saveVHS("Fast Writer Tape");
+        String afterInsert = drain(token);
+
+        try (Connection slow = dataSource.getConnection()) {
+            slow.setAutoCommit(false);
+            try (PreparedStatement statement = slow.prepareStatement("UPDATE vhs SET title = 'Slow Writer Tape II' WHERE id = ?")) {
+                statement.setObject(1, older.getId());
+                statement.executeUpdate();
+            }
+            jdbcTemplate.update("UPDATE vhs SET title = 'Fast Writer Tape II' WHERE id = ?", newer.getId());
+
+            VHSChangesDTO whileOpen = vhsService.getChanges(afterInsert, 100);
+            assertThat(whileOpen.vhs()).isEmpty();
+            assertThat(whileOpen.token()).isEqualTo(afterInsert);
+
+            slow.commit();
+        }
+
+        VHSChangesDTO afterCommit = vhsService.getChanges(afterInsert, 100);
+        assertThat(afterCommit.vhs()).extracting(VHSDTO::getId).containsExactly(older.getId(), newer.getId());
+    }
+
+    private VHS saveVHS(String title) {
+        return catalog.createTape(title, 2);
+    }
+
+    private String drain(String since) {
+        VHSChangesDTO changes;
+        String position = since;
+        do {
+            changes = vhsService.getChanges(position, 1000);
+            position = changes.token();
+        } while (changes.hasMore());
+        return position;
+    }
+}
@@ -1,5 +1,8 @@
 package com.ekufrin.vhsrental.vhs;
 
+import com.ekufrin.vhsrental.config.CatalogChangeEvent;
+import com.ekufrin.vhsrental.config.CatalogVersions;
+import com.ekufrin.vhsrental.config.CursorSlice;
 import com.ekufrin.vhsrental.genre.GenreDTO;
 import com.ekufrin.vhsrental.security.AuthService;
 import com.ekufrin.vhsrental.security.CustomUserDetailsService;
@@ -11,9 +14,11 @@ import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.TestPropertySource;
@@ -24,24 +29,36 @@ import tools.jackson.databind.json.JsonMapper;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = VHSController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(CatalogVersions.class)
 class VHSControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     @MockitoBean
     private VHSService vhsService;
 
+    @MockitoBean
+    private VHSImportService vhsImportService;
+
     @MockitoBean
     private AuthService authService;
 
@@ -93,6 +110,133 @@ class VHSControllerTest {
                 .andExpect(jsonPath("$.data.genre.name").value("Drama"));
     }
 
+    @Test
+    @DisplayName("get VHS by id with matching If-None-Match returns 304 without querying")
+    void getVHSById_MatchingETag_ReturnsNotModified() throws Exception {
+        VHSDTO dto = VHSDTO.builder()
+                .id(UUID.fromString("33333333-cccc-4c3c-a000-000000000002"))
+                .title("Cached Tape")
+                .genre(new GenreDTO(UUID.randomUUID(), "Drama"))
+                .rentalPrice(3.3)
+                .stockLevel(2)
+                .status(Status.AVAILABLE)
+                .build();
+        given(vhsService.getVHSById(dto.getId())).willReturn(dto);
+
+        String etag = mockMvc.perform(get("/vhs/" + dto.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/vhs/" + dto.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(vhsService, times(1)).getVHSById(dto.getId());
+    }
+
+    @Test
+    @DisplayName("get VHS by id keeps its ETag when another title changes and drops it when this one does")
+    void getVHSById_OtherTitleChanged_StillNotModified() throws Exception {
+        VHSDTO dto = VHSDTO.builder()
+                .id(UUID.fromString("33333333-cccc-4c3c-a000-000000000004"))
+                .title("Striped Tape")
+                .genre(new GenreDTO(UUID.randomUUID(), "Drama"))
+                .rentalPrice(3.3)
+                .stockLevel(2)
+                .status(Status.AVAILABLE)
+                .build();
+        given(vhsService.getVHSById(dto.getId())).willReturn(dto);
+
+        String etag = mockMvc.perform(get("/vhs/" + dto.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        catalogVersions.bump(CatalogChangeEvent.VHS, UUID.fromString("33333333-cccc-4c3c-a000-000000000005"));
+        mockMvc.perform(get("/vhs/" + dto.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        catalogVersions.bump(CatalogChangeEvent.VHS, dto.getId());
+        mockMvc.perform(get("/vhs/" + dto.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("catalog changes return upserts, tombstones and the next token")
+    void getChanges_ReturnsDeltaAndToken() throws Exception {
+        VHSDTO dto = VHSDTO.builder()
+                .id(UUID.randomUUID())
+                .title("Changed Tape")
+                .genre(new GenreDTO(UUID.randomUUID(), "Horror"))
+                .rentalPrice(2.5)
+                .stockLevel(1)
+                .status(Status.AVAILABLE)
+                .build();
+        UUID deletedId = UUID.randomUUID();
+        given(vhsService.getChanges("prev-token", 500)).willReturn(new VHSChangesDTO(
+                List.of(dto), List.of(), List.of(new CatalogTombstoneDTO("vhs", deletedId)), "next-token", false
+        ));
+
+        mockMvc.perform(get("/vhs/changes").param("since", "prev-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.vhs[0].title").value("Changed Tape"))
+                .andExpect(jsonPath("$.data.deleted[0].id").value(deletedId.toString()))
+                .andExpect(jsonPath("$.data.token").value("next-token"))
+                .andExpect(jsonPath("$.data.hasMore").value(false));
+    }
+
+    @Test
+    @DisplayName("filter VHS returns results with facet counts")
+    void filterVHS_ReturnsResultsAndFacets() throws Exception {
+        UUID genreId = UUID.randomUUID();
+        VHSDTO dto = VHSDTO.builder()
+                .id(UUID.randomUUID())
+                .title("Robocop")
+                .genre(new GenreDTO(genreId, "Action"))
+                .rentalPrice(3.5)
+                .stockLevel(2)
+                .status(Status.AVAILABLE)
+                .build();
+        VHSFacetsDTO facets = new VHSFacetsDTO(
+                Map.of("Action", 1L), Map.of("AVAILABLE", 1L), Map.of("2-4", 1L), Map.of(1980, 1L)
+        );
+        given(vhsService.filterVHS(
+                ArgumentMatchers.eq(new VHSFilter(genreId, Status.AVAILABLE, null, 4.0, 1980)), ArgumentMatchers.any()
+        )).willReturn(new VHSFilterResultDTO(new PageImpl<>(List.of(dto), PageRequest.of(0, 20), 1), facets));
+
+        mockMvc.perform(get("/vhs/filter")
+                        .param("genreId", genreId.toString())
+                        .param("status", "AVAILABLE")
+                        .param("maxPrice", "4.0")
+                        .param("decade", "1980"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.results.content[0].title").value("Robocop"))
+                .andExpect(jsonPath("$.data.facets.priceRanges['2-4']").value(1));
+    }
+
+    @Test
+    @DisplayName("filter VHS with unknown status returns 400")
+    void filterVHS_UnknownStatus_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/vhs/filter").param("status", "MISSING"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("search VHS returns ranked slice with next cursor")
+    void searchVHS_ReturnsSlice() throws Exception {
+        VHSDTO dto = VHSDTO.builder()
+                .id(UUID.randomUUID())
+                .title("Terminator 2")
+                .genre(new GenreDTO(UUID.randomUUID(), "Action"))
+                .rentalPrice(4.0)
+                .stockLevel(3)
+                .status(Status.AVAILABLE)
+                .build();
+        given(vhsService.searchVHS("terminatr", null, 20)).willReturn(new CursorSlice<>(List.of(dto), "next", true));
+
+        mockMvc.perform(get("/vhs/search").param("q", "terminatr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].title").value("Terminator 2"))
+                .andExpect(jsonPath("$.data.nextCursor").value("next"));
+    }
+
     @Test
     @DisplayName("create VHS with multipart request returns 201 Created")
     void createVHS_Multipart_ReturnsCreated() throws Exception {
@@ -122,4 +266,29 @@ class VHSControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.data.title").value("Funny Tape"));
     }
+
+    @Test
+    @DisplayName("catalog import streams NDJSON to the import service and returns the summary")
+    void importCatalog_Ndjson_ReturnsSummary() throws Exception {
+        given(vhsImportService.importCatalog(ArgumentMatchers.any(), ArgumentMatchers.eq(VHSImportService.Format.NDJSON))).willReturn(new VHSImportResultDTO(
+                2, 1, 1, List.of(new VHSImportErrorDTO(2, "Unknown genre: Western")), false
+        ));
+
+        mockMvc.perform(post("/vhs/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"title\":\"Alien\"}\n{\"title\":\"Unforgiven\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(1))
+                .andExpect(jsonPath("$.data.errors[0].row").value(2))
+                .andExpect(jsonPath("$.data.errors[0].message").value("Unknown genre: Western"));
+    }
+
+    @Test
+    @DisplayName("catalog import rejects unsupported content types")
+    void importCatalog_UnsupportedContentType_Returns415() throws Exception {
+        mockMvc.perform(post("/vhs/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
 }
@@ -0,0 +1,115 @@
+package com.ekufrin.vhsrental.vhs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.StringReader;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "catalog.import.batch-size=" + VHSImportServiceTest.BATCH_SIZE)
+@ActiveProfiles("test")
+class VHSImportServiceTest {
+    static final int BATCH_SIZE = 2;
+    private static final String TITLE_PREFIX = "Import Test ";
+    // Passes the import's own validation but is refused by the database, to force a batch onto the row-by-row path.
+    private static final String REJECTING_CONSTRAINT = "vhs_import_test_rejected_title";
+
+    @Autowired
+    private VHSImportService importService;
+    @MockitoSpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID dramaId;
+
+    @BeforeEach
+    void setUp() {
+        dramaId = jdbcTemplate.queryForObject("SELECT id FROM genres WHERE name = 'Drama'", UUID.class);
+        jdbcTemplate.execute("ALTER TABLE vhs ADD CONSTRAINT " + REJECTING_CONSTRAINT
+                + " CHECK (title NOT LIKE '" + TITLE_PREFIX + "Rejected%') NOT VALID");
+        clearInvocations(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("ALTER TABLE vhs DROP CONSTRAINT IF EXISTS " + REJECTING_CONSTRAINT);
+        jdbcTemplate.update("DELETE FROM vhs WHERE title LIKE ?", TITLE_PREFIX + "%");
+    }
+
+    @Test
+    @DisplayName("a mixed CSV imports the valid rows in COPY batches and reports each bad row by number")
+    void importCatalog_MixedCsv_ReportsRowsAndKeepsGoing() {
+        String csv = """
+                Status,Title,Release_Date,Genre,Rental_Price,Stock_Level,Notes
+                available,Import Test A,1985-03-01,  DRAMA ,2.5,3,ignored
+                AVAILABLE,Import Test B,1990-01-01T00:00:00Z,drama,3,1,
+                AVAILABLE,Import Test C,not-a-date,Drama,3,1,
+                AVAILABLE,Import Test D,1990-01-01,No Such Genre,3,1,
+                AVAILABLE,Import Test Rejected E,1990-01-01,Drama,3,1,
+                AVAILABLE,Import Test F,1991-01-01,Drama,4,2,
+                AVAILABLE,Import Test G,1992-01-01,Drama,-1,2,
+                AVAILABLE,Import Test H,1993-01-01,Drama,5,1,
+                """;
+
+        VHSImportResultDTO result = importService.importCatalog(new StringReader(csv), VHSImportService.Format.CSV);
+
+        assertThat(result.rowsRead()).isEqualTo(8);
+        assertThat(result.imported()).isEqualTo(4);
+        assertThat(result.failed()).isEqualTo(4);
+        assertThat(result.errorsTruncated()).isFalse();
+        assertThat(result.errors()).extracting(VHSImportErrorDTO::row).containsExactly(3L, 4L, 5L, 7L);
+        assertThat(result.errors().get(0).message()).startsWith("Invalid release date format");
+        assertThat(result.errors().get(1).message()).isEqualTo("Unknown genre: No Such Genre");
+        assertThat(result.errors().get(2).message()).contains(REJECTING_CONSTRAINT);
+        assertThat(result.errors().get(3).message()).startsWith("Rental price must be positive");
+
+        // Batches {A, B}, {E, F} and {H} each go through COPY; only the rejected one falls back to single inserts.
+        verify(jdbcTemplate, times(3)).execute(any(ConnectionCallback.class));
+        verify(jdbcTemplate, times(2)).update(startsWith("INSERT INTO vhs"), any(Object[].class));
+
+        List<Map<String, Object>> imported = jdbcTemplate.queryForList(
+                "SELECT title, genre_id, release_date, stock_level, available_count FROM vhs WHERE title LIKE ? ORDER BY title",
+                TITLE_PREFIX + "%");
+        assertThat(imported).extracting(row -> row.get("title"))
+                .containsExactly("Import Test A", "Import Test B", "Import Test F", "Import Test H");
+        assertThat(imported).extracting(row -> row.get("genre_id")).containsOnly(dramaId);
+        assertThat(imported).allSatisfy(row -> assertThat(row.get("available_count")).isEqualTo(row.get("stock_level")));
+        assertThat(((Timestamp) imported.getFirst().get("release_date")).toInstant())
+                .isEqualTo(Instant.parse("1985-03-01T00:00:00Z"));
+    }
+
+    @Test
+    @DisplayName("a malformed NDJSON line fails only that row")
+    void importCatalog_MalformedJsonLine_FailsOnlyThatRow() {
+        String ndjson = """
+                {"title":"Import Test J1","releaseDate":"1999-01-01","genre":"drama","rentalPrice":"2","stockLevel":"1","status":"AVAILABLE"}
+                {"title":"Import Test J2",
+                {"title":"Import Test J3","releaseDate":"1999-01-01","genre":"Drama","rentalPrice":"2","stockLevel":"1","status":"AVAILABLE"}
+                """;
+
+        VHSImportResultDTO result = importService.importCatalog(new StringReader(ndjson), VHSImportService.Format.NDJSON);
+
+        assertThat(result.rowsRead()).isEqualTo(3);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).extracting(VHSImportErrorDTO::row).containsExactly(2L);
+        assertThat(result.errors().getFirst().message()).startsWith("Malformed JSON");
+    }
+}
@@ -0,0 +1,34 @@
+package com.ekufrin.vhsrental.vhs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VHSMapperTest {
+
+    @Test
+    void imageVariantUrls_VariantsPending_PointAtOriginal() {
+        VHS vhs = VHS.builder().imageHash("abc").imageExtension(".png").build();
+
+        assertThat(VHSMapper.imageVariantUrls(vhs))
+                .containsOnlyKeys("thumbnail", "card", "detail")
+                .allSatisfy((key, url) -> assertThat(url).isEqualTo("/uploads/abc.png"));
+    }
+
+    @Test
+    void imageVariantUrls_VariantsReady_PointAtRenditions() {
+        VHS vhs = VHS.builder().imageHash("abc").imageExtension(".png").imageVariantsReady(true).build();
+
+        assertThat(VHSMapper.imageVariantUrls(vhs))
+                .containsEntry("thumbnail", "/uploads/abc-thumbnail.png")
+                .containsEntry("card", "/uploads/abc-card.png")
+                .containsEntry("detail", "/uploads/abc-detail.png");
+    }
+
+    @Test
+    void imageVariantUrls_LegacyCover_NoVariants() {
+        VHS vhs = VHS.builder().imageExtension(".png").build();
+
+        assertThat(VHSMapper.imageVariantUrls(vhs)).isNull();
+    }
+}
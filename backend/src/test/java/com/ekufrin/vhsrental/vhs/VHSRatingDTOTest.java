@@ -0,0 +1,43 @@
+package com.ekufrin.vhsrental.vhs;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VHSRatingDTOTest {
+
+    @Test
+    void star_RoundsHalfUpToWholeStars() {
+        assertThat(VHSRatingDTO.star(1.0)).isEqualTo(1);
+        assertThat(VHSRatingDTO.star(2.49)).isEqualTo(2);
+        assertThat(VHSRatingDTO.star(2.5)).isEqualTo(3);
+        assertThat(VHSRatingDTO.star(5.0)).isEqualTo(5);
+    }
+
+    @Test
+    void points_RoundsToTwoDecimalsExactly() {
+        assertThat(VHSRatingDTO.points(4.2)).isEqualTo(new BigDecimal("4.20"));
+        assertThat(VHSRatingDTO.points(3.005)).isEqualTo(new BigDecimal("3.01"));
+        assertThat(VHSRatingDTO.points(1.1).add(VHSRatingDTO.points(2.2))).isEqualTo(new BigDecimal("3.30"));
+    }
+
+    @Test
+    void of_ComputesAverageAndHistogram() {
+        VHS vhs = VHS.builder().ratingCount(3).ratingSum(new BigDecimal("11.50")).rating3(1).rating4(1).rating5(1).build();
+
+        VHSRatingDTO rating = VHSRatingDTO.of(vhs);
+
+        assertThat(rating.average()).isEqualTo(3.83);
+        assertThat(rating.histogram()).containsExactly(
+                Map.entry(1, 0), Map.entry(2, 0), Map.entry(3, 1),
+                Map.entry(4, 1), Map.entry(5, 1));
+    }
+
+    @Test
+    void of_WithoutReviews_HasNoAverage() {
+        assertThat(VHSRatingDTO.of(new VHS()).average()).isNull();
+    }
+}
@@ -0,0 +1,62 @@
+package com.ekufrin.vhsrental.vhs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class VHSSuggestIndexTest {
+    private VHSSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new VHSSuggestIndex(mock(JdbcTemplate.class));
+    }
+
+    private List<String> titles(List<VHSSuggestionDTO> suggestions) {
+        return suggestions.stream().map(VHSSuggestionDTO::title).toList();
+    }
+
+    @Test
+    void suggest_MatchesNormalizedPrefixOnly() {
+        index.add(UUID.randomUUID(), "Alien");
+        index.add(UUID.randomUUID(), "Aliens");
+        index.add(UUID.randomUUID(), "Amélie");
+        index.add(UUID.randomUUID(), "Back to the Future");
+
+        assertThat(titles(index.suggest("ali", 10))).containsExactly("Alien", "Aliens");
+        assertThat(titles(index.suggest("  AME", 10))).containsExactly("Amélie");
+        assertThat(index.suggest("z", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_LargeRange_IsCappedAtLimit() {
+        for (int i = 0; i < 3_000; i++) {
+            index.add(UUID.randomUUID(), "Star Trek " + i);
+        }
+        index.add(UUID.randomUUID(), "Stargate");
+
+        assertThat(index.suggest("star", 5)).hasSize(5);
+        assertThat(index.suggest("star", 50)).hasSize(VHSSuggestIndex.MAX_SUGGESTIONS);
+        assertThat(titles(index.suggest("starg", 5))).containsExactly("Stargate");
+    }
+
+    @Test
+    void suggest_TitlesBeforeAndAfterMerge_InterleaveAlphabetically() {
+        index.add(UUID.randomUUID(), "Alien");
+        index.add(UUID.randomUUID(), "Aliens");
+        // Fills the overlay up to the threshold, so these titles are merged into the packed arrays.
+        for (int i = 2; i < VHSSuggestIndex.MERGE_THRESHOLD; i++) {
+            index.add(UUID.randomUUID(), "Film " + i);
+        }
+        index.add(UUID.randomUUID(), "Alien 3");
+
+        assertThat(titles(index.suggest("alien", 10))).containsExactly("Alien", "Alien 3", "Aliens");
+        assertThat(titles(index.suggest("film 1023", 10))).containsExactly("Film 1023");
+    }
+}
@@ -59,16 +59,16 @@ INSERT INTO vhs (id, title, release_date, genre_id, rental_price, stock_level, i
 ON CONFLICT (id) DO NOTHING;
 
 -- Rentals (8) - PK(id)
-INSERT INTO rentals (id, vhs_id, user_id, rental_date, due_date, return_date, price, version) VALUES
-                                                                                                  ('75555555-eeee-4e5e-c000-000000000001', '73333333-cccc-4c3c-a000-000000000001', '72222222-bbbb-4b2b-9000-000000000001', '2025-01-05 10:00:00+00', '2025-01-07 10:00:00+00', '2025-01-07 09:00:00+00', 8.00, 0),
-                                                                                                  ('75555555-eeee-4e5e-c000-000000000002', '73333333-cccc-4c3c-a000-000000000002', '72222222-bbbb-4b2b-9000-000000000001', '2025-01-10 12:00:00+00', '2025-01-12 12:00:00+00', '2025-01-12 10:00:00+00', 6.60, 0),
-                                                                                                  ('75555555-eeee-4e5e-c000-000000000003', '73333333-cccc-4c3c-a000-000000000003', '72222222-bbbb-4b2b-9000-000000000002', '2025-01-15 09:00:00+00', '2025-01-17 09:00:00+00', '2025-01-17 08:00:00+00', 5.00, 0),
-                                                                                                  ('75555555-eeee-4e5e-c000-000000000004', '73333333-cccc-4c3c-a000-000000000004', '72222222-bbbb-4b2b-9000-000000000002', '2025-02-02 14:00:00+00', '2025-02-04 14:00:00+00', '2025-02-04 13:00:00+00', 13.00, 0),
+INSERT INTO rentals (id, vhs_id, user_id, rental_date, due_date, return_date, price_cents, version) VALUES
+                                                                                                  ('75555555-eeee-4e5e-c000-000000000001', '73333333-cccc-4c3c-a000-000000000001', '72222222-bbbb-4b2b-9000-000000000001', '2025-01-05 10:00:00+00', '2025-01-07 10:00:00+00', '2025-01-07 09:00:00+00', 800, 0),
+                                                                                                  ('75555555-eeee-4e5e-c000-000000000002', '73333333-cccc-4c3c-a000-000000000002', '72222222-bbbb-4b2b-9000-000000000001', '2025-01-10 12:00:00+00', '2025-01-12 12:00:00+00', '2025-01-12 10:00:00+00', 660, 0),
+                                                                                                  ('75555555-eeee-4e5e-c000-000000000003', '73333333-cccc-4c3c-a000-000000000003', '72222222-bbbb-4b2b-9000-000000000002', '2025-01-15 09:00:00+00', '2025-01-17 09:00:00+00', '2025-01-17 08:00:00+00', 500, 0),
+                                                                                                  ('75555555-eeee-4e5e-c000-000000000004', '73333333-cccc-4c3c-a000-000000000004', '72222222-bbbb-4b2b-9000-000000000002', '2025-02-02 14:00:00+00', '2025-02-04 14:00:00+00', '2025-02-04 13:00:00+00', 1300, 0),
                                                                                                   ('75555555-eeee-4e5e-c000-000000000005', '73333333-cccc-4c3c-a000-000000000005', '72222222-bbbb-4b2b-9000-000000000003', '2025-02-10 10:00:00+00', '2025-02-12 10:00:00+00', NULL, NULL, 0),
                                                                                                   ('75555555-eeee-4e5e-c000-000000000006', '73333333-cccc-4c3c-a000-000000000003', '72222222-bbbb-4b2b-9000-000000000003', '2025-02-12 11:00:00+00', '2025-02-14 11:00:00+00', NULL, NULL, 0),
                                                                                                   ('75555555-eeee-4e5e-c000-000000000007', '73333333-cccc-4c3c-a000-000000000001', '72222222-bbbb-4b2b-9000-000000000002', '2025-02-14 12:00:00+00', '2025-02-16 12:00:00+00', NULL, NULL, 0),
                                                                                                   ('75555555-eeee-4e5e-c000-000000000008', '73333333-cccc-4c3c-a000-000000000002', '72222222-bbbb-4b2b-9000-000000000003', '2025-02-16 13:00:00+00', '2025-02-18 13:00:00+00', NULL, NULL, 0)
-ON CONFLICT (id) DO NOTHING;
+ON CONFLICT (id, archived, rental_date) DO NOTHING;
 
 -- Reviews (6) - PK(id), rental_id UNIQUE
 INSERT INTO reviews (id, rental_id, rating, comment) VALUES
@@ -79,3 +79,14 @@ INSERT INTO reviews (id, rental_id, rating, comment) VALUES
   ('76666666-ffff-4f6f-d000-000000000005', '75555555-eeee-4e5e-c000-000000000005', 3.8, 'Suspenseful and engaging.'),
   ('76666666-ffff-4f6f-d000-000000000006', '75555555-eeee-4e5e-c000-000000000006', 3.9, 'Great performances.')
 ON CONFLICT (id) DO NOTHING;
+
+-- Sync availability counters with the open rentals above
+UPDATE vhs v
+SET available_count = v.stock_level - (SELECT COUNT(*) FROM rentals r WHERE r.vhs_id = v.id AND r.return_date IS NULL)
+WHERE v.id IN (
+  '73333333-cccc-4c3c-a000-000000000001',
+  '73333333-cccc-4c3c-a000-000000000002',
+  '73333333-cccc-4c3c-a000-000000000003',
+  '73333333-cccc-4c3c-a000-000000000004',
+  '73333333-cccc-4c3c-a000-000000000005'
+);
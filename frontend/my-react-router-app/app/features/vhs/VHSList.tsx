@@ -63,7 +63,13 @@ export const VHSList: React.FC = () => {
               <Card key={vhs.id} className="hover:shadow-lg transition-shadow">
                 {vhs.imageUrl && (
                   <img
-                    src={joinUrl(API_BASE_URL, vhs.imageUrl)}
+                    src={joinUrl(API_BASE_URL, vhs.imageVariants?.card ?? vhs.imageUrl)}
+                    onError={(e) => {
+                      // Variants are rendered in the background; until then show the original.
+                      if (e.currentTarget.dataset.fallback) return;
+                      e.currentTarget.dataset.fallback = "true";
+                      e.currentTarget.src = joinUrl(API_BASE_URL, vhs.imageUrl!);
+                    }}
                     alt={vhs.title}
                     className="w-full max-h-32 object-contain rounded-lg mb-4"
                   />
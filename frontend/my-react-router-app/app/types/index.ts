@@ -30,6 +30,13 @@ export interface UserDTO {
 }
 
 
+export interface VHSRating {
+  count: number;
+  sum: number;
+  average: number | null;
+  histogram: Record<string, number>; // whole stars "1".."5" -> number of ratings
+}
+
 export interface VHS {
   id: string;
   title: string;
@@ -38,7 +45,9 @@ export interface VHS {
   rentalPrice: number;
   stockLevel: number;
   imageUrl: string | null;
+  imageVariants?: Record<string, string> | null;
   status: VHSStatus;
+  rating?: VHSRating;
 }
 
 export interface VHSDTO {
@@ -49,7 +58,9 @@ export interface VHSDTO {
   rentalPrice: number;
   stockLevel: number;
   imageUrl: string | null;
+  imageVariants?: Record<string, string> | null;
   status: VHSStatus;
+  rating?: VHSRating;
 }
 
 export interface Rental {